@@ -0,0 +1,79 @@
+package benchmark;
+
+import model.CompiledBoard;
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.PackedBreadthFirstSearch;
+import solver.ParallelBreadthFirstSearch;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the parallel breadth-first search scales with the number of
+ * threads on a large board with wide frontiers, compared to the sequential
+ * search.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelSolverBenchmark {
+
+    @Param({"1000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private ImmutableSoldierState initial;
+    private PackedBreadthFirstSearch sequential;
+    private ParallelBreadthFirstSearch parallel;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(1);
+        var rowCannons = new int[size];
+        var columnCannons = new int[size];
+        for (var i = 1; i < size - 1; i++) {
+            rowCannons[i] = random.nextInt(10) < 8 ? 0 : 1 + random.nextInt(2);
+            columnCannons[i] = random.nextInt(10) < 8 ? 0 : 1 + random.nextInt(2);
+        }
+        var board = CompiledBoard.compile(rowCannons, columnCannons, new Position(size - 1, size - 1));
+        initial = new ImmutableSoldierState(board, 0, 0, 1);
+        sequential = new PackedBreadthFirstSearch();
+        parallel = new ParallelBreadthFirstSearch(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallel.close();
+    }
+
+    @Benchmark
+    public Optional<List<Direction>> sequentialBreadthFirstSearch() {
+        return sequential.solve(initial);
+    }
+
+    @Benchmark
+    public Optional<List<Direction>> parallelBreadthFirstSearch() {
+        return parallel.solve(initial);
+    }
+}
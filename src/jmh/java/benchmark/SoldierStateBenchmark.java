@@ -0,0 +1,78 @@
+package benchmark;
+
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.SoldierState;
+import model.StateKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Set;
+
+/**
+ * Benchmarks of the hot paths of the model: move generation, legality checks,
+ * cloning and hashing of states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoldierStateBenchmark {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private SoldierState state;
+    private ImmutableSoldierState core;
+
+    @Setup
+    public void setUp() {
+        state = new SoldierState().withKey(new StateKey(2, 3, 1));
+        core = state.getCore();
+    }
+
+    @Benchmark
+    public Set<Direction> getLegalMoves() {
+        return state.getLegalMoves();
+    }
+
+    @Benchmark
+    public void isLegalMove(Blackhole blackhole) {
+        for (var direction : DIRECTIONS) {
+            blackhole.consume(state.isLegalMove(direction));
+        }
+    }
+
+    @Benchmark
+    public SoldierState cloneState() {
+        return state.clone();
+    }
+
+    @Benchmark
+    public int hashCodeState() {
+        return state.hashCode();
+    }
+
+    @Benchmark
+    public StateKey getKey() {
+        return state.getKey();
+    }
+
+    @Benchmark
+    public Set<Direction> getLegalMovesImmutable() {
+        return core.getLegalMoves();
+    }
+
+    @Benchmark
+    public ImmutableSoldierState applyImmutable() {
+        return core.apply(Direction.DOWN);
+    }
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.SoldierState;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzle.solver.BreadthFirstSearch;
+import solver.AStarSearch;
+import solver.BidirectionalSearch;
+import solver.PackedBreadthFirstSearch;
+import solver.Solver;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * End-to-end benchmarks of solving the puzzle from the initial state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+    /**
+     * Counts the states expanded by the solvers, reported by JMH as states
+     * expanded per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Expansions {
+        public long expandedStates;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            expandedStates = 0;
+        }
+    }
+
+    private PrintStream standardOutput;
+    private BreadthFirstSearch<Direction> breadthFirstSearch;
+    private PackedBreadthFirstSearch packedBreadthFirstSearch;
+    private AStarSearch aStarSearch;
+    private BidirectionalSearch bidirectionalSearch;
+    private ImmutableSoldierState initial;
+
+    @Setup
+    public void setUp() {
+        standardOutput = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        breadthFirstSearch = new BreadthFirstSearch<>();
+        packedBreadthFirstSearch = new PackedBreadthFirstSearch();
+        aStarSearch = new AStarSearch();
+        bidirectionalSearch = new BidirectionalSearch();
+        initial = ImmutableSoldierState.initial();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(standardOutput);
+    }
+
+    @Benchmark
+    public void breadthFirstSearch() {
+        breadthFirstSearch.solveAndPrintSolution(new SoldierState());
+    }
+
+    @Benchmark
+    public Optional<List<Direction>> packedBreadthFirstSearch(Expansions expansions) {
+        return solve(packedBreadthFirstSearch, expansions);
+    }
+
+    @Benchmark
+    public Optional<List<Direction>> aStarSearch(Expansions expansions) {
+        return solve(aStarSearch, expansions);
+    }
+
+    @Benchmark
+    public Optional<List<Direction>> bidirectionalSearch(Expansions expansions) {
+        return solve(bidirectionalSearch, expansions);
+    }
+
+    private Optional<List<Direction>> solve(Solver solver, Expansions expansions) {
+        var solution = solver.solve(initial);
+        expansions.expandedStates += solver.getExpandedStates();
+        return solution;
+    }
+}
@@ -0,0 +1,184 @@
+package game;
+
+import javafx.event.EventHandler;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.StackPane;
+import model.CompiledBoard;
+import model.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the board of the game into a {@link GridPane}. The squares are
+ * created when a board of a new size is shown and kept in an array indexed by
+ * their position, and a single image of the soldier is moved from square to
+ * square. Thus, a move updates two squares, and a reset updates every square
+ * once.
+ *
+ * <p>The cells covered by the lasers are shown by one overlay for each phase
+ * of the cannons, which are built from the bitmaps of the
+ * {@link CompiledBoard} when the board changes. Switching the phase only
+ * switches which overlay is visible.
+ */
+final class BoardView {
+
+    private static final String BLACK_BLOCK_STYLE = "-fx-background-color: black;";
+    private static final String LASER_STYLE = "-fx-background-color: rgba(255, 0, 0, 0.3);";
+    private static final double SQUARE_SIZE = 32;
+
+    private final GridPane grid;
+    private final EventHandler<? super MouseEvent> clickHandler;
+    private final ColumnConstraints columnConstraints;
+    private final RowConstraints rowConstraints;
+    private final ImageView soldier;
+    private StackPane[][] squares = new StackPane[0][0];
+    private final GridPane[] laserOverlays = new GridPane[2];
+    private CompiledBoard board;
+
+    /**
+     * Creates a {@code BoardView} object that renders into the grid pane
+     * specified. The squares are created when the first board is shown.
+     *
+     * @param grid the grid pane, whose first column and row constraints are
+     *             used for all the columns and rows
+     * @param soldierImage the image of the soldier
+     * @param clickHandler the handler of mouse clicks on the squares
+     */
+    BoardView(GridPane grid, Image soldierImage, EventHandler<? super MouseEvent> clickHandler) {
+        this.grid = grid;
+        this.clickHandler = clickHandler;
+        columnConstraints = grid.getColumnConstraints().isEmpty() ? new ColumnConstraints()
+                : grid.getColumnConstraints().get(0);
+        rowConstraints = grid.getRowConstraints().isEmpty() ? new RowConstraints()
+                : grid.getRowConstraints().get(0);
+        soldier = new ImageView(soldierImage);
+        soldier.setFitWidth(SQUARE_SIZE);
+        soldier.setFitHeight(SQUARE_SIZE);
+    }
+
+    /**
+     * Shows the black blocks and the lasers of the board specified and moves
+     * the soldier to the position specified, reusing the existing squares.
+     * The laser overlays are only rebuilt if the board has changed, and the
+     * squares are only recreated if its size has changed.
+     *
+     * @param board the board
+     * @param soldierPosition the position of the soldier
+     * @param active the active cannons
+     */
+    void reset(CompiledBoard board, Position soldierPosition, int active) {
+        if (!board.equals(this.board)) {
+            if (board.getRows() != squares.length || board.getCols() != squares[0].length) {
+                createSquares(board.getRows(), board.getCols());
+            }
+            for (var row = 0; row < squares.length; row++) {
+                for (var col = 0; col < squares[row].length; col++) {
+                    squares[row][col].setStyle(board.isBlackBlock(row, col) ? BLACK_BLOCK_STYLE : "");
+                }
+            }
+            for (var phase = 1; phase <= laserOverlays.length; phase++) {
+                grid.getChildren().remove(laserOverlays[phase - 1]);
+                laserOverlays[phase - 1] = createLaserOverlay(board, phase);
+                grid.add(laserOverlays[phase - 1], 0, 0, squares[0].length, squares.length);
+            }
+            this.board = board;
+        }
+        moveSoldier(soldierPosition);
+        showLasers(active);
+    }
+
+    /**
+     * Shows the cells covered by the lasers of the active cannons specified.
+     *
+     * @param active the active cannons
+     */
+    void showLasers(int active) {
+        for (var phase = 1; phase <= laserOverlays.length; phase++) {
+            laserOverlays[phase - 1].setVisible(phase == active);
+        }
+    }
+
+    /**
+     * Moves the soldier to the square at the position specified.
+     *
+     * @param position the new position of the soldier
+     */
+    void moveSoldier(Position position) {
+        // A node added to another parent is removed from its previous parent.
+        squares[position.row()][position.col()].getChildren().add(soldier);
+    }
+
+    private void createSquares(int rows, int cols) {
+        for (var row : squares) {
+            grid.getChildren().removeAll(row);
+        }
+        grid.getColumnConstraints().setAll(copies(columnConstraints, cols));
+        grid.getRowConstraints().setAll(copies(rowConstraints, rows));
+        squares = new StackPane[rows][cols];
+        for (var row = 0; row < rows; row++) {
+            for (var col = 0; col < cols; col++) {
+                var square = new StackPane();
+                square.setOnMouseClicked(clickHandler);
+                grid.add(square, col, row);
+                squares[row][col] = square;
+            }
+        }
+    }
+
+    /**
+     * Creates a grid pane laid out like the board, which shows the cells
+     * that are blocked in the phase specified but are not black blocks.
+     */
+    private GridPane createLaserOverlay(CompiledBoard board, int active) {
+        var overlay = new GridPane();
+        overlay.setHgap(grid.getHgap());
+        overlay.setVgap(grid.getVgap());
+        overlay.getColumnConstraints().setAll(copies(columnConstraints, squares[0].length));
+        overlay.getRowConstraints().setAll(copies(rowConstraints, squares.length));
+        var blocked = board.getBlockedCells(active);
+        for (var row = 0; row < board.getRows(); row++) {
+            for (var col = 0; col < board.getCols(); col++) {
+                var cell = board.getCell(row, col);
+                if ((blocked[cell >>> 6] & (1L << cell)) != 0 && !board.isBlackBlock(row, col)) {
+                    var laser = new Region();
+                    laser.setStyle(LASER_STYLE);
+                    overlay.add(laser, col, row);
+                }
+            }
+        }
+        overlay.setMouseTransparent(true);
+        overlay.setVisible(false);
+        return overlay;
+    }
+
+    private static List<ColumnConstraints> copies(ColumnConstraints constraints, int count) {
+        var copies = new ArrayList<ColumnConstraints>();
+        for (var i = 0; i < count; i++) {
+            var copy = new ColumnConstraints(constraints.getMinWidth(), constraints.getPrefWidth(),
+                    constraints.getMaxWidth(), constraints.getHgrow(), constraints.getHalignment(),
+                    constraints.isFillWidth());
+            copy.setPercentWidth(constraints.getPercentWidth());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static List<RowConstraints> copies(RowConstraints constraints, int count) {
+        var copies = new ArrayList<RowConstraints>();
+        for (var i = 0; i < count; i++) {
+            var copy = new RowConstraints(constraints.getMinHeight(), constraints.getPrefHeight(),
+                    constraints.getMaxHeight(), constraints.getVgrow(), constraints.getValignment(),
+                    constraints.isFillHeight());
+            copy.setPercentHeight(constraints.getPercentHeight());
+            copies.add(copy);
+        }
+        return copies;
+    }
+}
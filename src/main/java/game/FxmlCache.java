@@ -0,0 +1,98 @@
+package game;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads FXML documents in the background, so that a scene is ready when it
+ * is shown. Nodes may be created on any thread until they are attached to a
+ * scene that is showing, thus the documents, including the
+ * {@code initialize} methods of their controllers, are loaded on a daemon
+ * thread.
+ *
+ * <p>A preloaded document can be taken only once, since a root can be in a
+ * single scene at a time. Documents that have not been preloaded are loaded
+ * on the calling thread when they are taken.
+ */
+final class FxmlCache {
+
+    /**
+     * A loaded FXML document.
+     *
+     * @param root the root node
+     * @param controller the controller
+     * @param <T> the type of the controller
+     */
+    record Loaded<T>(Parent root, T controller) {
+    }
+
+    private static final Map<String, CompletableFuture<Loaded<?>>> PRELOADED = new ConcurrentHashMap<>();
+
+    private static final Executor EXECUTOR = runnable -> {
+        var thread = new Thread(runnable, "fxml-preloader");
+        thread.setDaemon(true);
+        thread.start();
+    };
+
+    private FxmlCache() {
+    }
+
+    /**
+     * Starts loading an FXML document in the background, unless it is
+     * already being loaded.
+     *
+     * @param resource the name of the resource of the document
+     */
+    static void preload(String resource) {
+        PRELOADED.computeIfAbsent(resource, key -> CompletableFuture.supplyAsync(() -> {
+            try {
+                var start = System.nanoTime();
+                var loaded = load(key);
+                Logger.debug("Preloaded {} in {} ms", key, (System.nanoTime() - start) / 1_000_000);
+                return loaded;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, EXECUTOR));
+    }
+
+    /**
+     * Takes a preloaded FXML document, waiting for it to be loaded if
+     * necessary, or loads it if it has not been preloaded.
+     *
+     * @param resource the name of the resource of the document
+     * @return the loaded document
+     * @param <T> the type of the controller
+     * @throws IOException if the document cannot be loaded
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Loaded<T> take(String resource) throws IOException {
+        var preloaded = PRELOADED.remove(resource);
+        if (preloaded == null) {
+            return (Loaded<T>) load(resource);
+        }
+        try {
+            return (Loaded<T>) preloaded.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException exception) {
+                throw exception.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Loaded<?> load(String resource) throws IOException {
+        var fxmlLoader = new FXMLLoader(FxmlCache.class.getResource(resource));
+        Parent root = fxmlLoader.load();
+        return new Loaded<>(root, fxmlLoader.getController());
+    }
+}
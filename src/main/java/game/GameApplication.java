@@ -1,25 +1,201 @@
 package game;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import metrics.Metrics;
 import org.tinylog.Logger;
+import result.AsyncGameResultManager;
+import result.CachingGameResultManager;
+import result.ConcurrentGameResultManager;
+import result.GameResultManager;
+import result.GameResultValidator;
+import result.JsonGameResultManager;
+import result.ValidatingGameResultManager;
+import util.JacksonHelper;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
 
 
 public class GameApplication extends Application {
+    private static final Path RESULTS_PATH = Path.of("results.jsonl");
+    private static final Path LEGACY_RESULTS_PATH = Path.of("results.json");
+    private static final String GAME_FXML = "/fxml/soldier.fxml";
+
+    /**
+     * The name of the system property that makes the application show the
+     * game scene and exit, e.g., {@code -Dstartup.training=true}. The
+     * {@code appcds} profile uses it to record the classes loaded at startup
+     * into a class data sharing archive.
+     */
+    public static final String TRAINING_PROPERTY = "startup.training";
+
+    private static AsyncGameResultManager gameResultManager;
+
+    /**
+     * {@return the game result manager of the application, which is opened
+     * in the background when it is first requested}
+     */
+    static synchronized AsyncGameResultManager getGameResultManager() {
+        if (gameResultManager == null) {
+            gameResultManager = new AsyncGameResultManager(GameApplication::openGameResultManager);
+        }
+        return gameResultManager;
+    }
+
+    private static GameResultManager openGameResultManager() throws IOException {
+        if (!Files.exists(RESULTS_PATH) && Files.exists(LEGACY_RESULTS_PATH)) {
+            migrate();
+        }
+        // Several instances of the application may share the file, e.g., on a shared computer.
+        var manager = new ConcurrentGameResultManager(RESULTS_PATH);
+        // The store scans the file for every query, the cache answers the leaderboard from memory.
+        var cached = new CachingGameResultManager(manager, RESULTS_PATH);
+        return new ValidatingGameResultManager(cached, new GameResultValidator(), true);
+    }
+
+    /**
+     * Converts the legacy results to JSON Lines in a temporary file, which is
+     * then moved into place, so that an interrupted migration is repeated
+     * when the application is started again.
+     */
+    private static void migrate() throws IOException {
+        var results = new JsonGameResultManager(LEGACY_RESULTS_PATH).getAll();
+        var temporary = Files.createTempFile(RESULTS_PATH.toAbsolutePath().getParent(),
+                RESULTS_PATH.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                for (var result : results) {
+                    out.write(JacksonHelper.writeValueAsBytes(result));
+                    out.write('\n');
+                }
+            }
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            // A rename within the directory, which fails instead of replacing the file of another instance.
+            Files.move(temporary, RESULTS_PATH);
+            Logger.info("Migrated {} game results from {}", results.size(), LEGACY_RESULTS_PATH);
+        } catch (FileAlreadyExistsException e) {
+            Logger.info("Game results have been migrated by another instance");
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Shows the game scene in the stage specified and starts the game. The
+     * scene is preloaded in the background while the sign-up form is shown.
+     *
+     * @param stage the stage
+     * @param playerName the name of the player
+     * @param afterFirstFrame the action run after the first frame of the
+     *                        game scene has been rendered
+     * @throws IOException if the game scene cannot be loaded
+     */
+    static void showGame(Stage stage, String playerName, Runnable afterFirstFrame) throws IOException {
+        var start = Instant.now();
+        FxmlCache.Loaded<GameController> game = FxmlCache.take(GAME_FXML);
+        game.controller().setPlayerName(playerName);
+        var scene = new Scene(game.root());
+        reportFirstFrame(scene, "the game scene", start, Metrics.Timer.GAME_SCENE, afterFirstFrame);
+        stage.setScene(scene);
+        stage.show();
+        game.controller().start();
+    }
+
+    /**
+     * Logs and records the time from the instant specified to the first frame
+     * of a scene, i.e., to the end of its first layout pulse.
+     */
+    private static void reportFirstFrame(Scene scene, String name, Instant start, Metrics.Timer timer,
+                                         Runnable afterFirstFrame) {
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean reported;
+
+            @Override
+            public void run() {
+                if (reported) {
+                    return;
+                }
+                reported = true;
+                var elapsed = Duration.between(start, Instant.now());
+                Logger.info("Time to the first frame of {}: {} ms", name, elapsed.toMillis());
+                Metrics.record(timer, elapsed.toNanos());
+                // Listeners must not be removed while the pulse is running them.
+                Platform.runLater(() -> {
+                    scene.removePostLayoutPulseListener(this);
+                    afterFirstFrame.run();
+                });
+            }
+        });
+    }
+
     @Override
     public void start(final Stage stage) throws IOException {
         Logger.info("Starting application");
+        getGameResultManager();
         Parent root = FXMLLoader.load(
                 getClass().getResource("/fxml/sign_up.fxml")
         );        stage.setTitle("Soldier logic game");
         Scene scene = new Scene(root);
+        var processStart = ProcessHandle.current().info().startInstant().orElseGet(Instant::now);
+        reportFirstFrame(scene, "the application", processStart, Metrics.Timer.FIRST_FRAME,
+                Boolean.getBoolean(TRAINING_PROPERTY) ? () -> train(stage) : () -> { });
         stage.setScene(scene);
         stage.setResizable(false);
         stage.show();
+        FxmlCache.preload(GAME_FXML);
+    }
+
+    /**
+     * Shows the game scene and exits, so that the classes needed to start
+     * the game are loaded in a training run.
+     */
+    private static void train(Stage stage) {
+        try {
+            showGame(stage, "training", Platform::exit);
+        } catch (IOException e) {
+            Logger.error(e, "Failed to load the game scene");
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Writes the metrics and closes the game result manager. The manager is
+     * closed on a thread that is not a daemon, so that the application thread
+     * does not wait for the pending results to be written and synced, while
+     * the virtual machine does not exit before they are.
+     */
+    @Override
+    public void stop() {
+        try {
+            Metrics.writeSnapshot();
+        } catch (IOException e) {
+            Logger.error(e, "Failed to write the metrics");
+        }
+        synchronized (GameApplication.class) {
+            if (gameResultManager != null) {
+                var manager = gameResultManager;
+                new Thread(() -> {
+                    try {
+                        manager.close();
+                    } catch (IOException e) {
+                        Logger.error(e, "Failed to close the game results");
+                    }
+                }, "game-result-close").start();
+            }
+        }
     }
 }
@@ -2,14 +2,11 @@ package game;
 
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
-import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
@@ -17,28 +14,34 @@ import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.*;
 import javafx.scene.layout.GridPane;
-import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import lombok.Setter;
+import metrics.Metrics;
+import model.BoardDefinition;
+import model.CompiledBoard;
 import model.Direction;
+import model.MoveHistory;
 import model.SoldierState;
 import org.tinylog.Logger;
 import result.GameResult;
-import result.JsonGameResultManager;
+import solver.DistanceOracle;
 import util.DurationUtil;
 import util.javafx.ImageStorage;
 import util.OrdinalImageStorage;
 
 import java.io.IOException;
 import java.net.URL;
-import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public class GameController {
+    private static final String TABLE_FXML = "/fxml/table.fxml";
+    private static final double IMAGE_SIZE = 32;
     private static final ImageStorage<Integer> imageStorage = new OrdinalImageStorage(GameController.class,
+            IMAGE_SIZE, IMAGE_SIZE,
             "soldier.png",
             "black.png",
             "black-rotated.png",
@@ -56,63 +59,102 @@ public class GameController {
     private String playerName;
     @FXML
     private Label stopwatchLabel;
+    @FXML
+    private Label hintLabel;
 
+    private final List<BoardDefinition> levels = BoardDefinition.getLevels();
+    private int level;
     private SoldierState state;
+    private BoardView boardView;
 
     private final IntegerProperty steps = new SimpleIntegerProperty(0);
+    private final MoveHistory history = new MoveHistory();
     private Instant startTime;
     private AnimationTimer timer;
+    private Stage highScoreStage;
+    private TableViewController highScoreController;
 
+    /**
+     * Builds the board without starting the game, so the scene can be loaded
+     * in the background by {@link FxmlCache}.
+     */
     @FXML
     private void initialize() {
-        loadCannon();
-        resetGame();
-        registerKeyEventHandler();
+        boardView = new BoardView(grid, imageStorage.get(0).orElseThrow(), this::handleMouseClick);
+        resetBoard();
+        DistanceOracle.of(state.getBoard());
         bindNumberOfMoves();
+        FxmlCache.preload(TABLE_FXML);
+    }
+
+    /**
+     * Starts the game once the scene of the controller has been shown. It
+     * must be called on the JavaFX Application Thread.
+     */
+    void start() {
+        registerKeyEventHandler();
         startTimer();
     }
 
     private void bindNumberOfMoves() {
         numberofSteps.textProperty().bind(steps.asString());
     }
-    private void loadCannon(){
-        int rows = 16;
-        int columns = 16;
-        ImageView triangle;
-        for (int row = 0; row < rows; row++){
-            for (int column = 0; column < columns; column++) {
-
-                if(row==0 && (column==2 || column==5 || column==9 || column==11 || column==13)) {
-                    triangle = createImageViewForPieceOnPosition(1, row, column);
-                    row_grid.add(triangle, column, row);                }
-                else if(column==0 &&(row==2 || row==6 || row==8 || row==6 || row==10 || row==12)){
-                    triangle = createImageViewForPieceOnPosition(2, row, column);
-                    col_grid.add(triangle, column, row);                }
-                else if(row==0 && (column==3 || column==8 )){
-                    triangle = createImageViewForPieceOnPosition(3, row, column);
-                    row_grid.add(triangle, column, row);                }
-                else if(column==0 &&(row==1 || row==4 || row==7 || row==11)){
-                    triangle = createImageViewForPieceOnPosition(4, row, column);
-                    col_grid.add(triangle, column, row);                }
-                else {
-                    continue;
-                }
-                triangle.setFitWidth(32);
-                triangle.setFitHeight(32);
+    private void loadCannon(CompiledBoard board) {
+        row_grid.getChildren().clear();
+        col_grid.getChildren().clear();
+        // The first column of row_grid is above col_grid.
+        for (var col = 0; col < board.getCols(); col++) {
+            var phase = board.getRowCannon(col);
+            if (phase != 0) {
+                row_grid.add(createCannonImageView(phase == 2 ? 1 : 3), col + 1, 0);
+            }
+        }
+        for (var row = 0; row < board.getRows(); row++) {
+            var phase = board.getColumnCannon(row);
+            if (phase != 0) {
+                col_grid.add(createCannonImageView(phase == 2 ? 2 : 4), 0, row);
             }
         }
     }
 
+    private ImageView createCannonImageView(int index) {
+        var imageView = new ImageView(imageStorage.get(index).orElseThrow());
+        imageView.setFitWidth(IMAGE_SIZE);
+        imageView.setFitHeight(IMAGE_SIZE);
+        return imageView;
+    }
+
     private void resetGame() {
-        clearGrid();
+        resetBoard();
+        startTimer();
+    }
+
+    private void resetBoard() {
+        var board = state == null ? null : state.getBoard();
         createState();
-        populateGrid();
+        if (!state.getBoard().equals(board)) {
+            loadCannon(state.getBoard());
+        }
+        var start = Metrics.start();
+        boardView.reset(state.getBoard(), state.getPosition(SoldierState.SOLDIER), state.ACTIVE.get());
+        Metrics.stop(Metrics.Timer.RENDERING, start);
         steps.set(0);
-        startTimer();
+        history.clear();
+        hintLabel.setText("");
     }
     private void createState() {
-        state = new SoldierState();
+        state = new SoldierState(levels.get(level).initialState());
         state.solvedProperty().addListener(this::handleSolved);
+        state.positionProperty().addListener((observable, oldValue, newValue) -> {
+            var start = Metrics.start();
+            boardView.moveSoldier(newValue);
+            Metrics.stop(Metrics.Timer.RENDERING, start);
+        });
+        state.ACTIVE.addListener((observable, oldValue, newValue) -> {
+            var start = Metrics.start();
+            boardView.showLasers(newValue.intValue());
+            Metrics.stop(Metrics.Timer.RENDERING, start);
+        });
     }
 
     private void handleSolved(ObservableValue<? extends Boolean> observableValue, Boolean oldValue, Boolean newValue) {
@@ -133,15 +175,17 @@ public class GameController {
 
     private void showHighScoreTable() {
         try {
-
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/table.fxml"));
-            Parent root = fxmlLoader.load();
-            Stage stage = new Stage();
-            stage.setTitle("High Score Table");
-            Scene scene = new Scene(root);
-            stage.setScene(scene);
-            stage.setOnCloseRequest(event -> resetGame());
-            stage.show();
+            // The table is loaded once, in the background, and refreshed whenever it is shown.
+            if (highScoreStage == null) {
+                FxmlCache.Loaded<TableViewController> table = FxmlCache.take(TABLE_FXML);
+                highScoreController = table.controller();
+                highScoreStage = new Stage();
+                highScoreStage.setTitle("High Score Table");
+                highScoreStage.setScene(new Scene(table.root()));
+                highScoreStage.setOnCloseRequest(event -> resetGame());
+            }
+            highScoreController.refresh();
+            highScoreStage.show();
         } catch (IOException e) {
             Logger.error(e, "Failed to load high score table", e);
         }
@@ -155,15 +199,19 @@ public class GameController {
                 .steps(steps.get())
                 .duration(elapsed)
                 .created(ZonedDateTime.now())
+                .level(levels.get(level).name())
+                .moves(history.encode())
                 .build();
 
-        try {
-            var gameResultManager = new JsonGameResultManager(Path.of("results.json"));
-            gameResultManager.add(gameResult);
-            Logger.info("Game result saved: {}", gameResult);
-        } catch (IOException e) {
-            Logger.error(e, "Failed to save game result");
-        }
+        var start = Metrics.start();
+        GameApplication.getGameResultManager().add(gameResult).whenComplete((ignored, exception) -> {
+            Metrics.stop(Metrics.Timer.RESULT_SAVE, start);
+            if (exception == null) {
+                Logger.info("Game result saved: {}", gameResult);
+            } else {
+                Logger.error(exception, "Failed to save game result");
+            }
+        });
     }
 
 
@@ -189,67 +237,6 @@ public class GameController {
         Logger.info("Timer stopped.");
     }
 
-    private void clearGrid() {
-        for (int row = 0; row < 15; row++) {
-            for (int col = 0; col < 15; col++) {
-                getGridNodeAtPosition(grid, row, col)
-                        .ifPresent(node -> ((StackPane) node).getChildren().clear());
-            }
-        }
-    }
-
-
-    private void populateGrid() {
-        for (var row = 0; row < grid.getRowCount(); row++) {
-            for (var col = 0; col < grid.getColumnCount(); col++) {
-                var square = createSquare(row, col);
-                grid.add(square, col, row);
-            }
-        }
-    }
-
-    private StackPane createSquare(int row, int col) {
-        var square = new StackPane();
-        if(row==13 && col==13) {
-            square.setStyle("-fx-background-color: black;");
-        }
-        if(row==14 && col==6){
-            square.setStyle("-fx-background-color: black;");
-        }
-        var imageView = createSoldierImageViewForPieceOnPosition(0, row, col);
-        square.getChildren().add(imageView);
-
-        square.setOnMouseClicked(this::handleMouseClick);
-        return square;
-    }
-
-
-    private ImageView createImageViewForPieceOnPosition(int index, int row, int col) {
-        var imageView = new ImageView(imageStorage.get(index).orElseThrow());
-        return imageView;
-    }
-
-    private ImageView createSoldierImageViewForPieceOnPosition(int index, int row, int col) {
-        var imageView = new ImageView(imageStorage.get(0).orElseThrow());
-        imageView.setFitWidth(32);
-        imageView.setFitHeight(32);
-        imageView.visibleProperty().bind(createBindingToCheckPieceIsOnPosition(index, row, col));
-        return imageView;
-    }
-    private BooleanBinding createBindingToCheckPieceIsOnPosition(int index, int row, int col) {
-        return new BooleanBinding() {
-            {
-                super.bind(state.positionProperty());
-            }
-            @Override
-            protected boolean computeValue() {
-                var position = state.getPosition(0);
-                return position.row() == row && position.col() == col;
-            }
-        };
-    }
-
-
     @FXML
     private void handleMouseClick(MouseEvent event) {
         final var source = (Node) event.getSource();
@@ -271,19 +258,82 @@ public class GameController {
         return Optional.ofNullable(direction);
     }
 
+    private boolean validateMove(Direction direction) {
+        var start = Metrics.start();
+        var legal = state.isLegalMove(direction);
+        Metrics.stop(Metrics.Timer.MOVE_VALIDATION, start);
+        if (Metrics.ENABLED) {
+            var board = state.getBoard();
+            var position = state.getPosition(SoldierState.SOLDIER);
+            Metrics.recordMove(levels.get(level).name(), board.getRows(), board.getCols(), position.row(),
+                    position.col(), legal);
+        }
+        return legal;
+    }
+
     private void performMove(Direction direction) {
-        if (state.isLegalMove(direction)) {
-            Logger.info("Moving {}", direction);
+        var legal = validateMove(direction);
+        if (legal && history.isFull()) {
+            Logger.warn("Move history is full, ignoring move {}", direction);
+        } else if (legal) {
+            Logger.trace("Moving {}", direction);
             state.makeMove(direction);
             Logger.trace("New state after move: {}", state);
-            steps.set(steps.get() + 1);
+            history.add(direction);
+            steps.set(history.size());
+            hintLabel.setText("");
         } else {
-            Logger.warn("Illegal move: {}", direction);
+            Logger.debug("Illegal move: {}", direction);
         }
     }
 
+    private void undoMove() {
+        // A solved game has already been saved, thus it cannot be taken back.
+        if (state.isSolved() || !history.canUndo()) {
+            return;
+        }
+        var direction = history.undo();
+        Logger.trace("Undoing {}", direction);
+        state.undoMove(direction);
+        steps.set(history.size());
+        hintLabel.setText("");
+    }
+
+    private void redoMove() {
+        if (!history.canRedo()) {
+            return;
+        }
+        var direction = history.redo();
+        Logger.trace("Redoing {}", direction);
+        // Counted like a move made, which it was before it was undone, thus it is legal.
+        validateMove(direction);
+        state.makeMove(direction);
+        steps.set(history.size());
+        hintLabel.setText("");
+    }
+
+    private void showHint() {
+        var core = state.getCore();
+        DistanceOracle.of(core.board()).thenAccept(oracle -> Platform.runLater(() -> {
+            if (!core.equals(state.getCore())) {
+                return;
+            }
+            var remaining = oracle.getRemainingMoves(core);
+            hintLabel.setText(oracle.getBestMove(core)
+                    .map(direction -> String.format("Hint: %s (%d moves left)", direction, remaining))
+                    .orElse(remaining == 0 ? "" : "No solution from here"));
+        }));
+    }
+
+    private void switchLevel(int offset) {
+        level = Math.floorMod(level + offset, levels.size());
+        Logger.info("Switching to level {}", levels.get(level).name());
+        DistanceOracle.of(levels.get(level).compile());
+        resetGame();
+    }
+
     private void registerKeyEventHandler() {
-        Platform.runLater(() -> grid.getScene().setOnKeyPressed(this::handleKeyPress));
+        grid.getScene().setOnKeyPressed(this::handleKeyPress);
     }
 
 
@@ -291,12 +341,31 @@ public class GameController {
     private void handleKeyPress(KeyEvent keyEvent) {
         var restartKeyCombination = new KeyCodeCombination(KeyCode.R, KeyCombination.CONTROL_DOWN);
         var quitKeyCombination = new KeyCodeCombination(KeyCode.Q, KeyCombination.CONTROL_DOWN);
+        var undoKeyCombination = new KeyCodeCombination(KeyCode.Z, KeyCombination.CONTROL_DOWN);
+        var redoKeyCombination = new KeyCodeCombination(KeyCode.Y, KeyCombination.CONTROL_DOWN);
+        var shiftRedoKeyCombination = new KeyCodeCombination(KeyCode.Z, KeyCombination.CONTROL_DOWN,
+                KeyCombination.SHIFT_DOWN);
         if (restartKeyCombination.match(keyEvent)) {
             Logger.debug("Restarting game");
             resetGame();
+        } else if (undoKeyCombination.match(keyEvent)) {
+            Logger.debug("Undoing move");
+            undoMove();
+        } else if (redoKeyCombination.match(keyEvent) || shiftRedoKeyCombination.match(keyEvent)) {
+            Logger.debug("Redoing move");
+            redoMove();
         } else if (quitKeyCombination.match(keyEvent)) {
             Logger.debug("Exiting");
             Platform.exit();
+        } else if (keyEvent.getCode() == KeyCode.PAGE_DOWN) {
+            Logger.debug("PAGE_DOWN pressed");
+            switchLevel(1);
+        } else if (keyEvent.getCode() == KeyCode.PAGE_UP) {
+            Logger.debug("PAGE_UP pressed");
+            switchLevel(-1);
+        } else if (keyEvent.getCode() == KeyCode.H) {
+            Logger.debug("H pressed");
+            showHint();
         } else if (keyEvent.getCode() == KeyCode.UP) {
             Logger.debug("UP pressed");
             performMove(Direction.UP);
@@ -311,17 +380,4 @@ public class GameController {
             performMove(Direction.LEFT);
         }
     }
-    private static Optional<Node> getGridNodeAtPosition(GridPane gridPane, int row, int col) {
-        return gridPane.getChildren().stream()
-                .filter(child -> {
-                    Integer rowIndex = GridPane.getRowIndex(child);
-                    Integer colIndex = GridPane.getColumnIndex(child);
-                    return rowIndex != null && colIndex != null && rowIndex == row && colIndex == col;
-                })
-                .findFirst();
-    }
-
-
-
-
 }
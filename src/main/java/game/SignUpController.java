@@ -2,10 +2,7 @@ package game;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
@@ -25,14 +22,8 @@ public class SignUpController {
         if (playerNameTextField.getText().isEmpty()) {
             errorLabel.setText("Enter your name!");
         } else {
-
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/fxml/soldier.fxml"));
-            Parent root = fxmlLoader.load();
-            GameController gameController = fxmlLoader.getController();
-            gameController.setPlayerName(playerNameTextField.getText());
-            stage.setScene(new Scene(root));
-            stage.show();
+            GameApplication.showGame(stage, playerNameTextField.getText(), () -> { });
             Logger.info("The user's name is set to {}, loading game scene", playerNameTextField.getText());
         }
     }
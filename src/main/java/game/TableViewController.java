@@ -1,5 +1,6 @@
 package game;
 
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -7,12 +8,11 @@ import javafx.fxml.FXML;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
+import metrics.Metrics;
+import org.tinylog.Logger;
 import result.GameResult;
-import result.JsonGameResultManager;
 import util.DurationUtil;
 
-import java.io.IOException;
-import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 
@@ -32,8 +32,10 @@ public class TableViewController {
     @FXML
     private TableColumn<GameResult, String> created;
 
+    private final ObservableList<GameResult> observableList = FXCollections.observableArrayList();
+
     @FXML
-    private void initialize() throws IOException {
+    private void initialize() {
         playerName.setCellValueFactory(new PropertyValueFactory<>("playerName"));
         steps.setCellValueFactory(new PropertyValueFactory<>("steps"));
         duration.setCellValueFactory(
@@ -48,8 +50,21 @@ public class TableViewController {
                     return new ReadOnlyStringWrapper(formatter.format(dateTime));
                 }
         );
-        ObservableList<GameResult> observableList = FXCollections.observableArrayList();
-        observableList.addAll(new JsonGameResultManager(Path.of("results.json")).getBest(10));
         tableView.setItems(observableList);
     }
+
+    /**
+     * Loads the best game results into the table in the background.
+     */
+    void refresh() {
+        var start = Metrics.start();
+        GameApplication.getGameResultManager().getBest(10).whenComplete((best, exception) -> {
+            Metrics.stop(Metrics.Timer.LEADERBOARD_LOAD, start);
+            if (exception == null) {
+                Platform.runLater(() -> observableList.setAll(best));
+            } else {
+                Logger.error(exception, "Failed to load the best game results");
+            }
+        });
+    }
 }
@@ -0,0 +1,125 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds with log-linear buckets,
+ * like the ones of HdrHistogram. Values below 32 have a bucket each, and
+ * every power of two above is divided into 32 buckets, so the values are
+ * recorded with a relative error of at most 1/32, in a fixed number of
+ * counters.
+ *
+ * <p>Recording a value increments a single counter, thus it can be called
+ * from any number of threads. Snapshots taken while values are recorded may
+ * miss the most recent values.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Summary statistics of a histogram. The percentiles are the highest
+     * values of the buckets containing them, thus they are at most 1/32
+     * greater than the exact ones.
+     *
+     * @param count the number of values recorded
+     * @param meanNanos the mean of the values
+     * @param p50Nanos the median
+     * @param p90Nanos the 90th percentile
+     * @param p99Nanos the 99th percentile
+     * @param p999Nanos the 99.9th percentile
+     * @param maxNanos the maximum
+     */
+    public record Snapshot(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+                           long p999Nanos, long maxNanos) {
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param nanos the value in nanoseconds
+     */
+    public void record(long nanos) {
+        var value = Math.max(nanos, 0);
+        counts.incrementAndGet(getIndex(value));
+        total.add(value);
+        for (var current = max.get(); value > current && !max.compareAndSet(current, value); ) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * {@return the summary statistics of the values recorded so far}
+     */
+    public Snapshot getSnapshot() {
+        var snapshot = new long[BUCKETS];
+        var count = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if (count == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0, 0);
+        }
+        var maxNanos = max.get();
+        return new Snapshot(count, total.sum() / count,
+                getPercentile(snapshot, count, 50, maxNanos), getPercentile(snapshot, count, 90, maxNanos),
+                getPercentile(snapshot, count, 99, maxNanos), getPercentile(snapshot, count, 99.9, maxNanos),
+                maxNanos);
+    }
+
+    private static long getPercentile(long[] counts, long count, double percentile, long max) {
+        var rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        var seen = 0L;
+        for (var i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(getHighestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * {@return the index of the bucket of a non-negative value}
+     *
+     * @param value the value
+     */
+    static int getIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        var shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * {@return the lowest value of a bucket}
+     *
+     * @param index the index of the bucket
+     */
+    static long getLowestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        var shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+    }
+
+    /**
+     * {@return the highest value of a bucket}
+     *
+     * @param index the index of the bucket
+     */
+    static long getHighestValue(int index) {
+        return index == BUCKETS - 1 ? Long.MAX_VALUE : getLowestValue(index + 1) - 1;
+    }
+}
@@ -0,0 +1,222 @@
+package metrics;
+
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of the hot paths of the game and counters of the moves
+ * attempted by the players.
+ *
+ * <p>The metrics of the application are collected only if the system
+ * property {@value #PROPERTY} is set to the path of the file to which the
+ * snapshot is written by {@link #writeSnapshot()}, e.g.,
+ * {@code -Dmetrics=metrics.json}. The static methods check a constant, so
+ * when the metrics are disabled, the JIT compiler removes the calls, and
+ * not even the clock is read.
+ *
+ * <p>Instances can be shared between threads, recording never blocks.
+ */
+public final class Metrics {
+
+    /**
+     * The name of the system property that enables the metrics of the
+     * application.
+     */
+    public static final String PROPERTY = "metrics";
+
+    /**
+     * Whether the metrics of the application are collected.
+     */
+    public static final boolean ENABLED;
+
+    private static final Path SNAPSHOT_PATH;
+    private static final Metrics APPLICATION;
+
+    static {
+        var path = System.getProperty(PROPERTY);
+        ENABLED = path != null && !path.isBlank();
+        SNAPSHOT_PATH = ENABLED ? Path.of(path) : null;
+        APPLICATION = ENABLED ? new Metrics() : null;
+    }
+
+    /**
+     * The operations whose latencies are recorded.
+     */
+    public enum Timer {
+        /**
+         * Checking whether a move is legal.
+         */
+        MOVE_VALIDATION,
+        /**
+         * Updating the board after a move or a reset.
+         */
+        RENDERING,
+        /**
+         * Saving a game result, including the time spent waiting for the
+         * operations submitted earlier.
+         */
+        RESULT_SAVE,
+        /**
+         * Loading the best game results.
+         */
+        LEADERBOARD_LOAD,
+        /**
+         * From the start of the process to the first frame of the
+         * application.
+         */
+        FIRST_FRAME,
+        /**
+         * From starting a game to the first frame of the game scene.
+         */
+        GAME_SCENE
+    }
+
+    /**
+     * A snapshot of the metrics.
+     *
+     * @param taken the time the snapshot was taken
+     * @param latencies the latency statistics of the operations
+     * @param moves the moves attempted on each board, by the name of the
+     *              board
+     */
+    public record Snapshot(Instant taken, Map<Timer, LatencyHistogram.Snapshot> latencies,
+                           Map<String, MoveCounters.Snapshot> moves) {
+    }
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Timer.values().length];
+    private final Map<String, MoveCounters> moves = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@code Metrics} object with empty histograms and counters.
+     */
+    public Metrics() {
+        for (var i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * {@return the histogram of the latencies of an operation}
+     *
+     * @param timer the operation
+     */
+    public LatencyHistogram getHistogram(Timer timer) {
+        return histograms[timer.ordinal()];
+    }
+
+    /**
+     * {@return the counters of the moves attempted on a board, which are
+     * created when the board is first requested}
+     *
+     * @param board the name of the board
+     * @param rows the number of rows of the board
+     * @param cols the number of columns of the board
+     */
+    public MoveCounters getMoveCounters(String board, int rows, int cols) {
+        var counters = moves.computeIfAbsent(board, name -> new MoveCounters(rows, cols));
+        if (counters.getRows() != rows || counters.getCols() != cols) {
+            throw new IllegalArgumentException("Board " + board + " has a different size");
+        }
+        return counters;
+    }
+
+    /**
+     * {@return a snapshot of the metrics}
+     */
+    public Snapshot getSnapshot() {
+        var latencies = new EnumMap<Timer, LatencyHistogram.Snapshot>(Timer.class);
+        for (var timer : Timer.values()) {
+            latencies.put(timer, getHistogram(timer).getSnapshot());
+        }
+        var boards = new TreeMap<String, MoveCounters.Snapshot>();
+        moves.forEach((board, counters) -> boards.put(board, counters.getSnapshot()));
+        return new Snapshot(Instant.now(), latencies, boards);
+    }
+
+    /**
+     * Writes a snapshot of the metrics as JSON.
+     *
+     * @param out the output stream to which JSON data will be written
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeSnapshot(OutputStream out) throws IOException {
+        out.write(JacksonHelper.writeValueAsBytes(getSnapshot()));
+    }
+
+    /**
+     * {@return the current value of the clock if the metrics of the
+     * application are enabled, 0 otherwise}
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the latency of an operation in the metrics of the application,
+     * if they are enabled.
+     *
+     * @param timer the operation
+     * @param start the value returned by {@link #start()} when the operation
+     *              started
+     */
+    public static void stop(Timer timer, long start) {
+        if (ENABLED) {
+            APPLICATION.getHistogram(timer).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Records the latency of an operation measured by the caller in the
+     * metrics of the application, if they are enabled.
+     *
+     * @param timer the operation
+     * @param nanos the latency in nanoseconds
+     */
+    public static void record(Timer timer, long nanos) {
+        if (ENABLED) {
+            APPLICATION.getHistogram(timer).record(nanos);
+        }
+    }
+
+    /**
+     * Counts a move in the metrics of the application, if they are enabled.
+     *
+     * @param board the name of the board
+     * @param rows the number of rows of the board
+     * @param cols the number of columns of the board
+     * @param row the row from which the move is attempted
+     * @param col the column from which the move is attempted
+     * @param legal whether the move is legal
+     */
+    public static void recordMove(String board, int rows, int cols, int row, int col, boolean legal) {
+        if (ENABLED) {
+            APPLICATION.getMoveCounters(board, rows, cols).record(row, col, legal);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the metrics of the application to the file
+     * specified by the system property {@value #PROPERTY}, if they are
+     * enabled.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeSnapshot() throws IOException {
+        if (ENABLED) {
+            try (var out = Files.newOutputStream(SNAPSHOT_PATH)) {
+                APPLICATION.writeSnapshot(out);
+            }
+            Logger.info("Metrics written to {}", SNAPSHOT_PATH);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counters of the legal and illegal moves attempted from each cell
+ * of a board. The cells are numbered row by row, like the cells of a
+ * {@link model.CompiledBoard}.
+ */
+public final class MoveCounters {
+
+    private final int rows;
+    private final int cols;
+    private final AtomicLongArray legal;
+    private final AtomicLongArray illegal;
+
+    /**
+     * The number of moves attempted from each cell.
+     *
+     * @param rows the number of rows of the board
+     * @param cols the number of columns of the board
+     * @param legalMoves the total number of legal moves
+     * @param illegalMoves the total number of illegal moves
+     * @param legal the number of legal moves, indexed by row and column
+     * @param illegal the number of illegal moves, indexed by row and column
+     */
+    public record Snapshot(int rows, int cols, long legalMoves, long illegalMoves, long[][] legal,
+                           long[][] illegal) {
+    }
+
+    /**
+     * Creates a {@code MoveCounters} object for a board of the size specified.
+     *
+     * @param rows the number of rows of the board
+     * @param cols the number of columns of the board
+     */
+    public MoveCounters(int rows, int cols) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("Invalid size: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        legal = new AtomicLongArray(rows * cols);
+        illegal = new AtomicLongArray(rows * cols);
+    }
+
+    /**
+     * {@return the number of rows of the board}
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * {@return the number of columns of the board}
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Counts a move attempted from a cell.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     * @param isLegal whether the move is legal
+     */
+    public void record(int row, int col, boolean isLegal) {
+        (isLegal ? legal : illegal).incrementAndGet(row * cols + col);
+    }
+
+    /**
+     * {@return the number of moves attempted from each cell so far}
+     */
+    public Snapshot getSnapshot() {
+        var legalMoves = new long[rows][cols];
+        var illegalMoves = new long[rows][cols];
+        var legalTotal = 0L;
+        var illegalTotal = 0L;
+        for (var row = 0; row < rows; row++) {
+            for (var col = 0; col < cols; col++) {
+                legalMoves[row][col] = legal.get(row * cols + col);
+                illegalMoves[row][col] = illegal.get(row * cols + col);
+                legalTotal += legalMoves[row][col];
+                illegalTotal += illegalMoves[row][col];
+            }
+        }
+        return new Snapshot(rows, cols, legalTotal, illegalTotal, legalMoves, illegalMoves);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides low-overhead metrics of the game and the engine.
+ */
+package metrics;
\ No newline at end of file
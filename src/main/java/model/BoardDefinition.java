@@ -0,0 +1,207 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The definition of a level of the soldier puzzle, which is read from JSON.
+ * The board extends from the top left corner to the goal. The phases of the
+ * cannons are 1 and 2, where 0 means that there is no cannon, and cannons
+ * missing from the lists are considered to be absent.
+ *
+ * <p>The levels of a JSON array are read by {@link #read(InputStream)}.
+ * The levels shipped with the game are in the resource {@value #LEVELS}, the
+ * first of which is {@link #DEFAULT}. Resources read and boards compiled are
+ * cached, so switching between levels does not read or compile anything
+ * twice. The cache of compiled boards holds at most
+ * {@value #MAX_COMPILED} boards, it is cleared when it is full.
+ *
+ * <p>A level is rejected when it is read if its black blocks are outside the
+ * board, its start or goal is on a black block, or it has more cannons than
+ * the board has rows or columns. The properties {@code moves} and
+ * {@code branching}, the grades written by {@code solver.LevelGenerator},
+ * are ignored.
+ *
+ * @param name the name of the level
+ * @param rowCannons the phases of the cannons above the board, indexed by
+ *                   column
+ * @param columnCannons the phases of the cannons beside the board, indexed by
+ *                      row
+ * @param start the initial position of the soldier, the top left corner if
+ *              {@code null}
+ * @param goal the position of the goal
+ * @param blocks the positions of the black blocks
+ */
+@JsonIgnoreProperties({"moves", "branching"})
+public record BoardDefinition(String name, List<Integer> rowCannons, List<Integer> columnCannons, Position start,
+                              Position goal, List<Position> blocks) {
+
+    /**
+     * The name of the resource that contains the levels shipped with the
+     * game.
+     */
+    public static final String LEVELS = "/boards/levels.json";
+
+    /**
+     * The maximum number of compiled boards cached.
+     */
+    public static final int MAX_COMPILED = 256;
+
+    private static final Map<String, List<BoardDefinition>> RESOURCES = new ConcurrentHashMap<>();
+    private static final Map<BoardDefinition, CompiledBoard> COMPILED = new ConcurrentHashMap<>();
+
+    /**
+     * The first level shipped with the game.
+     */
+    public static final BoardDefinition DEFAULT = getLevels().get(0);
+
+    public BoardDefinition {
+        Objects.requireNonNull(name);
+        rowCannons = List.copyOf(rowCannons);
+        columnCannons = List.copyOf(columnCannons);
+        blocks = List.copyOf(blocks);
+        if (start == null) {
+            start = new Position(0, 0);
+        }
+        if (goal.row() < 0 || goal.col() < 0) {
+            throw new IllegalArgumentException("Invalid goal: " + goal);
+        }
+        if (start.row() < 0 || start.row() > goal.row() || start.col() < 0 || start.col() > goal.col()) {
+            throw new IllegalArgumentException("Invalid start: " + start);
+        }
+        if (rowCannons.size() > goal.col() + 1 || columnCannons.size() > goal.row() + 1) {
+            throw new IllegalArgumentException("More cannons than rows or columns");
+        }
+        for (var phase : rowCannons) {
+            checkPhase(phase);
+        }
+        for (var phase : columnCannons) {
+            checkPhase(phase);
+        }
+        for (var block : blocks) {
+            if (block.row() < 0 || block.row() > goal.row() || block.col() < 0 || block.col() > goal.col()) {
+                throw new IllegalArgumentException("Black block outside the board: " + block);
+            }
+        }
+        if (blocks.contains(start)) {
+            throw new IllegalArgumentException("Start on a black block: " + start);
+        }
+        if (blocks.contains(goal)) {
+            throw new IllegalArgumentException("Goal on a black block: " + goal);
+        }
+    }
+
+    private static void checkPhase(int phase) {
+        if (phase < 0 || phase > 2) {
+            throw new IllegalArgumentException("Invalid cannon phase: " + phase);
+        }
+    }
+
+    /**
+     * {@return the compiled board of the level, which is compiled only once}
+     */
+    public CompiledBoard compile() {
+        var board = COMPILED.get(this);
+        if (board != null) {
+            return board;
+        }
+        if (COMPILED.size() >= MAX_COMPILED) {
+            COMPILED.clear();
+        }
+        return COMPILED.computeIfAbsent(this, BoardDefinition::compileUncached);
+    }
+
+    /**
+     * {@return the compiled board of the level, which is compiled on every
+     * call and not cached, e.g., for a generated level that is compiled only
+     * once}
+     */
+    public CompiledBoard compileUncached() {
+        return CompiledBoard.compile(toArray(rowCannons), toArray(columnCannons), goal,
+                blocks.toArray(Position[]::new));
+    }
+
+    /**
+     * {@return the initial state of the level}
+     */
+    public ImmutableSoldierState initialState() {
+        return new ImmutableSoldierState(compile(), start.row(), start.col(), 1);
+    }
+
+    /**
+     * Reads levels from a JSON array.
+     *
+     * @param in the input stream from which JSON data will be read
+     * @return the levels read
+     * @throws IOException if an I/O error occurs or the JSON data is not a
+     * valid array of levels
+     */
+    public static List<BoardDefinition> read(InputStream in) throws IOException {
+        return List.copyOf(JacksonHelper.readList(in, BoardDefinition.class));
+    }
+
+    /**
+     * Reads levels from a JSON file.
+     *
+     * @param path the path to the file
+     * @return the levels read
+     * @throws IOException if an I/O error occurs or the file does not contain
+     * a valid array of levels
+     */
+    public static List<BoardDefinition> read(Path path) throws IOException {
+        try (var in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads levels from a resource, which is only read the first time it is
+     * requested.
+     *
+     * @param name the name of the resource
+     * @return the levels read
+     * @throws IOException if the resource does not exist or does not contain a
+     * valid array of levels
+     */
+    public static List<BoardDefinition> readResource(String name) throws IOException {
+        try {
+            return RESOURCES.computeIfAbsent(name, key -> {
+                try (var in = BoardDefinition.class.getResourceAsStream(key)) {
+                    if (in == null) {
+                        throw new IOException("Resource not found: " + key);
+                    }
+                    return read(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * {@return the levels shipped with the game}
+     */
+    public static List<BoardDefinition> getLevels() {
+        try {
+            return readResource(LEVELS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
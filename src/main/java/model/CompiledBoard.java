@@ -0,0 +1,215 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Precomputed tables of a board of the soldier puzzle. For both phases of the
+ * cannons, the board is compiled into a bitmap of the cells the soldier is not
+ * allowed to step onto, because they are covered by the lasers or by a black
+ * block. Checking whether a move is legal is therefore a single bit test.
+ *
+ * <p>The cells are numbered row by row, i.e., the cell of the position
+ * {@code (row, col)} is {@code row * getCols() + col}. The phases of the
+ * cannons are identified by the values of
+ * {@link ImmutableSoldierState#active()}, that is, by 1 and 2.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class CompiledBoard {
+
+    private final int rows;
+    private final int cols;
+    private final int[] rowCannons;
+    private final int[] columnCannons;
+    private final Position goal;
+    private final List<Position> blocks;
+    private final long[][] blocked;
+    private final int hash;
+
+    private CompiledBoard(int[] rowCannons, int[] columnCannons, Position goal, List<Position> blocks) {
+        this.rows = goal.row() + 1;
+        this.cols = goal.col() + 1;
+        this.rowCannons = new int[cols];
+        this.columnCannons = new int[rows];
+        System.arraycopy(rowCannons, 0, this.rowCannons, 0, Math.min(cols, rowCannons.length));
+        System.arraycopy(columnCannons, 0, this.columnCannons, 0, Math.min(rows, columnCannons.length));
+        this.goal = goal;
+        this.blocks = blocks;
+        var words = (rows * cols + 63) >>> 6;
+        this.blocked = new long[][] {new long[words], new long[words]};
+        for (var row = 0; row < rows; row++) {
+            for (var col = 0; col < cols; col++) {
+                var cell = getCell(row, col);
+                for (var active = 1; active <= 2; active++) {
+                    if (isBlackBlock(row, col) || isCoveredByLaser(active, row, col)) {
+                        blocked[active - 1][cell >>> 6] |= 1L << cell;
+                    }
+                }
+            }
+        }
+        this.hash = Objects.hash(goal, blocks, Arrays.hashCode(this.rowCannons), Arrays.hashCode(this.columnCannons));
+    }
+
+    /**
+     * Compiles a board. The board extends from the top left corner to the
+     * goal. Cannons missing from the arrays specified are considered to be
+     * absent.
+     *
+     * @param rowCannons the phases of the cannons above the board, indexed by
+     *                   column, where 0 means that there is no cannon
+     * @param columnCannons the phases of the cannons beside the board, indexed
+     *                      by row, where 0 means that there is no cannon
+     * @param goal the position of the goal, i.e., the bottom right corner of
+     *             the board
+     * @param blocks the positions of the black blocks
+     * @return the compiled board
+     */
+    public static CompiledBoard compile(int[] rowCannons, int[] columnCannons, Position goal, Position... blocks) {
+        if (goal.row() < 0 || goal.col() < 0) {
+            throw new IllegalArgumentException("Invalid goal: " + goal);
+        }
+        return new CompiledBoard(rowCannons, columnCannons, goal, List.of(blocks));
+    }
+
+    /**
+     * {@return the number of rows of the board}
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * {@return the number of columns of the board}
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * {@return the position of the goal}
+     */
+    public Position getGoal() {
+        return goal;
+    }
+
+    /**
+     * {@return the positions of the black blocks}
+     */
+    public List<Position> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * {@return the number of the cell at the position specified}
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    public int getCell(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * {@return the phase of the cannon above the column specified, or 0 if
+     * there is no cannon}
+     *
+     * @param col a column of the board
+     */
+    public int getRowCannon(int col) {
+        return rowCannons[col];
+    }
+
+    /**
+     * {@return the phase of the cannon beside the row specified, or 0 if there
+     * is no cannon}
+     *
+     * @param row a row of the board
+     */
+    public int getColumnCannon(int row) {
+        return columnCannons[row];
+    }
+
+    /**
+     * {@return whether there is a black block at the position specified}
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     */
+    public boolean isBlackBlock(int row, int col) {
+        for (var block : blocks) {
+            if (block.row() == row && block.col() == col) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@return whether the soldier is not allowed to step onto the cell at
+     * the position specified because of the lasers, irrespective of the black
+     * blocks}
+     *
+     * @param active the active cannons
+     * @param row a row of the board
+     * @param col a column of the board
+     */
+    public boolean isCoveredByLaser(int active, int row, int col) {
+        var columnCannon = columnCannons[row];
+        var rowCannon = rowCannons[col];
+        return columnCannon != active && rowCannon != active && (columnCannon != 0 || rowCannon != 0);
+    }
+
+    /**
+     * {@return whether the soldier is not allowed to step onto the position
+     * specified, positions outside the board are always blocked}
+     *
+     * @param active the active cannons
+     * @param row the row of the position
+     * @param col the column of the position
+     */
+    public boolean isBlocked(int active, int row, int col) {
+        return row < 0 || row >= rows || col < 0 || col >= cols || isBlockedCell(active, getCell(row, col));
+    }
+
+    /**
+     * {@return whether the soldier is not allowed to step onto the cell
+     * specified}
+     *
+     * @param active the active cannons
+     * @param cell the number of a cell of the board
+     */
+    public boolean isBlockedCell(int active, int cell) {
+        return (blocked[active - 1][cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * {@return a copy of the bitmap of the cells the soldier is not allowed to
+     * step onto, the bit {@code cell & 63} of the element {@code cell >>> 6}
+     * belongs to the cell {@code cell}}
+     *
+     * @param active the active cannons
+     */
+    public long[] getBlockedCells(int active) {
+        return blocked[active - 1].clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        return (o instanceof CompiledBoard other)
+                && hash == other.hash
+                && goal.equals(other.goal)
+                && blocks.equals(other.blocks)
+                && Arrays.equals(rowCannons, other.rowCannons)
+                && Arrays.equals(columnCannons, other.columnCannons);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
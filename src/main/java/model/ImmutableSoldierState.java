@@ -0,0 +1,144 @@
+package model;
+
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable state of the soldier puzzle that does not depend on JavaFX, thus
+ * it can be used by solvers and on headless servers. A state consists of the
+ * compiled board, the position of the soldier and the active cannons.
+ *
+ * @param board the compiled board
+ * @param row the row of the soldier
+ * @param col the column of the soldier
+ * @param active the active cannons, either 1 or 2
+ */
+public record ImmutableSoldierState(CompiledBoard board, int row, int col, int active) {
+
+    /**
+     * The board of the puzzle, i.e., the board of {@link BoardDefinition#DEFAULT}.
+     */
+    public static final CompiledBoard DEFAULT_BOARD = BoardDefinition.DEFAULT.compile();
+
+    public ImmutableSoldierState {
+        Objects.requireNonNull(board);
+        if (active != 1 && active != 2) {
+            throw new IllegalArgumentException("Invalid active cannons: " + active);
+        }
+    }
+
+    /**
+     * {@return the initial state of the puzzle}
+     */
+    public static ImmutableSoldierState initial() {
+        return BoardDefinition.DEFAULT.initialState();
+    }
+
+    /**
+     * {@return the state of the board specified identified by the key
+     * specified}
+     *
+     * @param board the compiled board
+     * @param key the key of the state
+     */
+    public static ImmutableSoldierState of(CompiledBoard board, StateKey key) {
+        return new ImmutableSoldierState(board, key.row(), key.col(), key.active());
+    }
+
+    /**
+     * Compiles a board with the cannons of {@link BoardDefinition#DEFAULT}.
+     *
+     * @param goal the position of the goal
+     * @param blocks the positions of the black blocks
+     * @return the compiled board
+     */
+    public static CompiledBoard compile(Position goal, Position... blocks) {
+        var definition = BoardDefinition.DEFAULT;
+        return CompiledBoard.compile(definition.rowCannons().stream().mapToInt(Integer::intValue).toArray(),
+                definition.columnCannons().stream().mapToInt(Integer::intValue).toArray(), goal, blocks);
+    }
+
+    /**
+     * {@return the position of the soldier}
+     */
+    public Position position() {
+        return new Position(row, col);
+    }
+
+    /**
+     * {@return the key identifying this state on its board}
+     */
+    public StateKey key() {
+        return new StateKey(row, col, active);
+    }
+
+    /**
+     * {@return whether the soldier has reached the goal}
+     */
+    public boolean isSolved() {
+        var goal = board.getGoal();
+        return row == goal.row() && col == goal.col();
+    }
+
+    /**
+     * {@return whether the soldier can be moved to the direction specified}
+     *
+     * @param direction a direction to which the soldier is intended to be moved
+     */
+    public boolean isLegalMove(Direction direction) {
+        return !board.isBlocked(active, row + direction.getRowChange(), col + direction.getColChange());
+    }
+
+    /**
+     * {@return the set of directions to which the soldier can be moved}
+     */
+    public Set<Direction> getLegalMoves() {
+        var legalMoves = EnumSet.noneOf(Direction.class);
+        for (var direction : Direction.values()) {
+            if (isLegalMove(direction)) {
+                legalMoves.add(direction);
+            }
+        }
+        return legalMoves;
+    }
+
+    /**
+     * Returns the state that results from moving the soldier to the direction
+     * specified and switching the active cannons. The legality of the move is
+     * not checked.
+     *
+     * @param direction the direction to which the soldier is moved
+     * @return the state after the move
+     */
+    public ImmutableSoldierState apply(Direction direction) {
+        return new ImmutableSoldierState(board, row + direction.getRowChange(), col + direction.getColChange(),
+                3 - active);
+    }
+
+    /**
+     * Returns the state from which moving the soldier to the direction
+     * specified results in this state, i.e., reverts {@link #apply(Direction)}.
+     *
+     * @param direction the direction to which the soldier has been moved
+     * @return the state before the move
+     */
+    public ImmutableSoldierState revert(Direction direction) {
+        return new ImmutableSoldierState(board, row - direction.getRowChange(), col - direction.getColChange(),
+                3 - active);
+    }
+
+    /**
+     * {@return a copy of this state with the active cannons specified}
+     *
+     * @param active the active cannons, either 1 or 2
+     */
+    public ImmutableSoldierState withActive(int active) {
+        return new ImmutableSoldierState(board, row, col, active);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%d,%d)@%d", row, col, active);
+    }
+}
@@ -0,0 +1,161 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The history of the moves of a game, which supports undo and redo. The
+ * moves are stored as the 2-bit ordinals of their directions, 32 moves per
+ * {@code long}, so a session of 100,000 moves takes 25 KB. States are not
+ * stored: a move is undone by reverting it, e.g., by
+ * {@link SoldierState#undoMove(Direction)}, and redone by applying it again.
+ *
+ * <p>The moves undone are kept until a new move is added, which discards
+ * them, like the history of an editor.
+ *
+ * <p>The history holds at most {@value #MAX_MOVES} moves, i.e., 4 MB, and
+ * refuses further moves. The oldest moves are not dropped instead, since
+ * the moves of a game result must be complete to be verified.
+ */
+public final class MoveHistory {
+
+    /**
+     * The maximum number of moves in the history, the moves undone
+     * included.
+     */
+    public static final int MAX_MOVES = 1 << 24;
+
+    private static final int INITIAL_CAPACITY = 4;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private long[] words = new long[INITIAL_CAPACITY];
+    private int size;
+    private int length;
+
+    /**
+     * Adds a move made and discards the moves undone.
+     *
+     * @param direction the direction of the move
+     * @throws IllegalStateException if the history is full
+     */
+    public void add(Direction direction) {
+        if (isFull()) {
+            throw new IllegalStateException("The move history is full");
+        }
+        if (size >>> 5 == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        var word = size >>> 5;
+        var shift = (size & 31) << 1;
+        words[word] = (words[word] & ~(3L << shift)) | ((long) direction.ordinal() << shift);
+        size++;
+        length = size;
+    }
+
+    /**
+     * {@return whether the history holds {@value #MAX_MOVES} moves made, thus
+     * no move can be added}
+     */
+    public boolean isFull() {
+        return size == MAX_MOVES;
+    }
+
+    /**
+     * {@return whether there is a move to undo}
+     */
+    public boolean canUndo() {
+        return size > 0;
+    }
+
+    /**
+     * {@return whether there is a move undone to redo}
+     */
+    public boolean canRedo() {
+        return size < length;
+    }
+
+    /**
+     * Undoes the last move made.
+     *
+     * @return the direction of the move, which must be reverted by the caller
+     * @throws IllegalStateException if there is no move to undo
+     */
+    public Direction undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("No move to undo");
+        }
+        return direction(--size);
+    }
+
+    /**
+     * Redoes the last move undone.
+     *
+     * @return the direction of the move, which must be applied again by the
+     * caller
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public Direction redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("No move to redo");
+        }
+        return direction(size++);
+    }
+
+    /**
+     * {@return the number of moves made, i.e., the moves undone excluded}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the direction of a move made}
+     *
+     * @param index the number of the move
+     */
+    public Direction get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return direction(index);
+    }
+
+    private Direction direction(int index) {
+        return DIRECTIONS[(int) (words[index >>> 5] >>> ((index & 31) << 1)) & 3];
+    }
+
+    /**
+     * {@return the moves made, in order}
+     */
+    public List<Direction> getMoves() {
+        var moves = new ArrayList<Direction>(size);
+        for (var i = 0; i < size; i++) {
+            moves.add(direction(i));
+        }
+        return moves;
+    }
+
+    /**
+     * {@return the moves made, encoded like by {@link Moves#encode(List)}}
+     */
+    public byte[] encode() {
+        var encoded = new byte[Moves.getEncodedLength(size)];
+        for (var i = 0; i < encoded.length; i++) {
+            encoded[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        if ((size & 3) != 0) {
+            encoded[encoded.length - 1] &= (byte) ((1 << ((size & 3) << 1)) - 1);
+        }
+        return encoded;
+    }
+
+    /**
+     * Removes all moves and releases the memory they took.
+     */
+    public void clear() {
+        words = new long[INITIAL_CAPACITY];
+        size = 0;
+        length = 0;
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes sequences of moves compactly, using 2 bits per {@link Direction}.
+ * The move number {@code i} is stored in the bits {@code 2 * (i & 3)} and
+ * {@code 2 * (i & 3) + 1} of the byte {@code i >>> 2}, as the ordinal of its
+ * direction. The unused bits of the last byte are 0. The number of moves is
+ * not encoded, it must be known when the sequence is decoded.
+ */
+public final class Moves {
+
+    private Moves() {
+    }
+
+    /**
+     * Encodes a sequence of moves.
+     *
+     * @param moves the moves
+     * @return the encoded moves, which consist of {@code (moves.size() + 3) / 4}
+     * bytes
+     */
+    public static byte[] encode(List<Direction> moves) {
+        var encoded = new byte[getEncodedLength(moves.size())];
+        for (var i = 0; i < moves.size(); i++) {
+            encoded[i >>> 2] |= (byte) (moves.get(i).ordinal() << ((i & 3) << 1));
+        }
+        return encoded;
+    }
+
+    /**
+     * Decodes a sequence of moves.
+     *
+     * @param encoded the encoded moves
+     * @param count the number of moves
+     * @return the moves
+     * @throws IllegalArgumentException if {@code encoded} does not consist of
+     * the number of bytes required for the number of moves specified
+     */
+    public static List<Direction> decode(byte[] encoded, int count) {
+        if (count < 0 || encoded.length != getEncodedLength(count)) {
+            throw new IllegalArgumentException("Invalid number of moves: " + count);
+        }
+        var directions = Direction.values();
+        var moves = new ArrayList<Direction>(count);
+        for (var i = 0; i < count; i++) {
+            moves.add(directions[get(encoded, i)]);
+        }
+        return moves;
+    }
+
+    /**
+     * {@return the ordinal of the direction of a move of an encoded sequence}
+     *
+     * @param encoded the encoded moves
+     * @param index the number of the move
+     */
+    public static int get(byte[] encoded, int index) {
+        return (encoded[index >>> 2] >>> ((index & 3) << 1)) & 3;
+    }
+
+    /**
+     * {@return the number of bytes required to encode the number of moves
+     * specified}
+     *
+     * @param count the number of moves
+     */
+    public static int getEncodedLength(int count) {
+        return (count + 3) >>> 2;
+    }
+}
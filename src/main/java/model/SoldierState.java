@@ -8,7 +8,8 @@ import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleIntegerProperty;
 import puzzle.State;
 
-import java.util.*;
+import java.util.Set;
+import java.util.StringJoiner;
 
 public class SoldierState implements State<Direction> {
 
@@ -34,22 +35,15 @@ public class SoldierState implements State<Direction> {
 
     public IntegerProperty ACTIVE = new SimpleIntegerProperty(1);
 
-
-    private final static ArrayList<Integer> RowCannon=new ArrayList<>(Arrays.asList(0,2,1,0,2,0,0,1,2,0,2,0,2,0,0));
-
-    private final static ArrayList<Integer> ColumnCannon=new ArrayList<>(Arrays.asList(0,1,2,0,1,0,2,1,2,0,2,1,2,0,0));
-
-    private final ReadOnlyObjectWrapper<Position>[] positions;
+    private ImmutableSoldierState core;
+    private final ReadOnlyObjectWrapper<Position> position;
     private final ReadOnlyBooleanWrapper solved;
 
     /**
      * Creates a {@code SoldierState} object that corresponds to the initial state of the puzzle.
      */
     public SoldierState() {
-        this( new Position(0, 0),
-                new Position(13, 13),
-                new Position(14, 6),
-                new Position(14, 14));
+        this(ImmutableSoldierState.initial());
     }
 
     /**
@@ -58,12 +52,26 @@ public class SoldierState implements State<Direction> {
      * @param positions the initial positions of the pieces
      */
     public SoldierState(Position... positions) {
-        this.positions = new ReadOnlyObjectWrapper[4];
-        for (var i = 0; i < 4; i++) {
-            this.positions[i] = new ReadOnlyObjectWrapper<>(positions[i]);
-        }
-        solved = new ReadOnlyBooleanWrapper();
-        solved.bind(this.positions[0].isEqualTo(this.positions[3]));
+        this(new ImmutableSoldierState(
+                ImmutableSoldierState.compile(positions[BOARD_SIZE], positions[BLACK_BLOCK1], positions[BLACK_BLOCK2]),
+                positions[SOLDIER].row(), positions[SOLDIER].col(), 1));
+    }
+
+    /**
+     * Creates an observable {@code SoldierState} object from the immutable state specified.
+     *
+     * @param core the immutable state
+     */
+    public SoldierState(ImmutableSoldierState core) {
+        this.core = core;
+        ACTIVE.set(core.active());
+        position = new ReadOnlyObjectWrapper<>(core.position());
+        solved = new ReadOnlyBooleanWrapper(core.isSolved());
+        ACTIVE.addListener((observable, oldValue, newValue) -> {
+            if (this.core.active() != newValue.intValue()) {
+                this.core = this.core.withActive(newValue.intValue());
+            }
+        });
     }
 
     /**
@@ -72,8 +80,8 @@ public class SoldierState implements State<Direction> {
      * @param i the index of the cannon
      * @return the row index of the cannon
      */
-    public Integer getCannonRowIndex(int i){
-        return RowCannon.get(i);
+    public int getCannonRowIndex(int i){
+        return core.board().getRowCannon(i);
     }
 
     /**
@@ -82,8 +90,26 @@ public class SoldierState implements State<Direction> {
      * @param i the index of the cannon
      * @return the column index of the cannon
      */
-    public Integer getCannonColumnIndex(int i){
-        return ColumnCannon.get(i);
+    public int getCannonColumnIndex(int i){
+        return core.board().getColumnCannon(i);
+    }
+
+    /**
+     * Returns the compiled tables of the board of this state.
+     *
+     * @return the compiled board
+     */
+    public CompiledBoard getBoard() {
+        return core.board();
+    }
+
+    /**
+     * Returns the immutable state this object is an observable view of.
+     *
+     * @return the immutable state
+     */
+    public ImmutableSoldierState getCore() {
+        return core;
     }
 
     /**
@@ -93,7 +119,12 @@ public class SoldierState implements State<Direction> {
      * @return the position of the piece
      */
     public Position getPosition(int n) {
-        return positions[n].get();
+        return switch (n) {
+            case SOLDIER -> position.get();
+            case BLACK_BLOCK1, BLACK_BLOCK2 -> core.board().getBlocks().get(n - BLACK_BLOCK1);
+            case BOARD_SIZE -> core.board().getGoal();
+            default -> throw new IndexOutOfBoundsException(n);
+        };
     }
 
     /**
@@ -102,7 +133,7 @@ public class SoldierState implements State<Direction> {
      * @return the property of the position of the soldier
      */
     public ReadOnlyObjectProperty<Position> positionProperty() {
-        return positions[0].getReadOnlyProperty();
+        return position.getReadOnlyProperty();
     }
 
     /**
@@ -118,17 +149,22 @@ public class SoldierState implements State<Direction> {
     }
 
     /**
-     * Checks if the black block can be moved to the specified position.
+     * Returns the key identifying this state, i.e., the position of the soldier and the active cannons.
      *
-     * @param position the position to check
-     * @return true if the black block can be moved, false otherwise
+     * @return the key of this state
      */
-    private boolean canMoveBlackBlock(Position position){
-        if (position.equals(getPosition(BLACK_BLOCK1))||
-                position.equals(getPosition(BLACK_BLOCK2))){
-            return false;
-        }
-        return true;
+    public StateKey getKey() {
+        return core.key();
+    }
+
+    /**
+     * Returns a new state on the same board whose soldier position and active cannons are given by the key.
+     *
+     * @param key the key of the state to be created
+     * @return the state corresponding to the key
+     */
+    public SoldierState withKey(StateKey key) {
+        return new SoldierState(ImmutableSoldierState.of(core.board(), key));
     }
 
     /**
@@ -139,82 +175,11 @@ public class SoldierState implements State<Direction> {
      */
     @Override
     public boolean isLegalMove(Direction direction) {
-        return switch (direction) {
-            case UP -> canMoveUp();
-            case RIGHT -> canMoveRight();
-            case DOWN -> canMoveDown();
-            case LEFT -> canMoveLeft();
-        };
-    }
-
-    private boolean canMoveUp() {
-
-        var up = getPosition(SOLDIER).moveUp();
-        if(getPosition(SOLDIER).row() > 0 &&
-                canMoveBlackBlock(up) &&
-                ((getCannonColumnIndex(up.row())==ACTIVE.get() && getCannonRowIndex(up.col())==ACTIVE.get())
-                        || (getCannonColumnIndex(up.row())==0 && getCannonRowIndex(up.col())==0)
-                        || (getCannonColumnIndex(up.row())==ACTIVE.get() && getCannonRowIndex(up.col())!=ACTIVE.get())
-                        || (getCannonColumnIndex(up.row())!=ACTIVE.get() && getCannonRowIndex(up.col())==ACTIVE.get()))){
-
-            return isEmpty(up);
-        }
-        return false;
-    }
-    private boolean canMoveRight() {
-        var right = getPosition(SOLDIER).moveRight();
-
-        if(getPosition(SOLDIER).col() < getPosition(BOARD_SIZE).col() &&
-                canMoveBlackBlock(right) &&
-                ((getCannonRowIndex(right.col())==ACTIVE.get() && getCannonColumnIndex(right.row())==ACTIVE.get())
-                        || (getCannonRowIndex(right.col())==0 && getCannonColumnIndex(right.row())==0)
-                        || (getCannonRowIndex(right.col())==ACTIVE.get() && getCannonColumnIndex(right.row())!=ACTIVE.get())
-                        || (getCannonRowIndex(right.col())!=ACTIVE.get() && getCannonColumnIndex(right.row())==ACTIVE.get()))){
-
-            return isEmpty(right);
-        }
-        return false;
-    }
-    private boolean canMoveDown() {
-        var down = getPosition(SOLDIER).moveDown();
-
-        if(getPosition(SOLDIER).row() < getPosition(BOARD_SIZE).row() &&
-                canMoveBlackBlock(down) &&
-                ((getCannonColumnIndex(down.row())==ACTIVE.get() && getCannonRowIndex(down.col())==ACTIVE.get())
-                        || (getCannonColumnIndex(down.row())==0 && getCannonRowIndex(down.col())==0)
-                        || (getCannonColumnIndex(down.row())==ACTIVE.get() && getCannonRowIndex(down.col())!=ACTIVE.get())
-                        || (getCannonColumnIndex(down.row())!=ACTIVE.get() && getCannonRowIndex(down.col())==ACTIVE.get()))){
-
-            return isEmpty(down);
-        }
-        return false;
-    }
-
-    private boolean canMoveLeft() {
-        var left = getPosition(SOLDIER).moveLeft();
-
-        if(getPosition(SOLDIER).col() >0 &&
-                canMoveBlackBlock(left) &&
-                ((getCannonRowIndex(left.col())==ACTIVE.get() && getCannonColumnIndex(left.row())==ACTIVE.get())
-                        || (getCannonRowIndex(left.col())==0 && getCannonColumnIndex(left.row())==0)
-                        || (getCannonRowIndex(left.col())==ACTIVE.get() && getCannonColumnIndex(left.row())!=ACTIVE.get())
-                        || (getCannonRowIndex(left.col())!=ACTIVE.get() && getCannonColumnIndex(left.row())==ACTIVE.get()))){
-
-            return isEmpty(left);
-        }
-        return false;
+        return core.isLegalMove(direction);
     }
 
     public boolean isEmpty(Position position) {
-        for (var p : positions) {
-            if (p.equals(position) && p==positions[3] ) {
-                return true;
-            }
-            else if (p.equals(position)) {
-                return false;
-            }
-        }
-        return true;
+        return !position.equals(getPosition(SOLDIER)) && !core.board().isBlackBlock(position.row(), position.col());
     }
 
     /**
@@ -224,44 +189,24 @@ public class SoldierState implements State<Direction> {
      */
     @Override
     public void makeMove(Direction direction) {
-        switch (direction) {
-            case UP -> moveUp();
-            case RIGHT -> moveRight();
-            case DOWN -> moveDown();
-            case LEFT -> moveLeft();
-        }
-        updateActiveCannon();
-    }
-    private void updateActiveCannon() {
-        ACTIVE.set((ACTIVE.get() == 1 ? 2 : 1));
-    }
-
-    private void moveUp() {
-        moveSoldier(Direction.UP);
-
-
-    }
-    private void moveRight() {
-        moveSoldier(Direction.RIGHT);
-
-    }
-    private void moveDown() {
-        moveSoldier(Direction.DOWN);
-
-    }
-    private void moveLeft() {
-        moveSoldier(Direction.LEFT);
-
+        core = core.apply(direction);
+        position.set(core.position());
+        solved.set(core.isSolved());
+        ACTIVE.set(core.active());
     }
 
     /**
-     * Moves the soldier to the direction specified.
+     * Takes back a move of the soldier to the direction specified, which
+     * restores the position of the soldier and the active cannons before the
+     * move.
      *
-     * @param direction the direction to which the soldier is moved
+     * @param direction the direction to which the soldier has been moved
      */
-    private void moveSoldier(Direction direction) {
-        var newPosition = getPosition(0).move(direction);
-        positions[0].set(newPosition);
+    public void undoMove(Direction direction) {
+        core = core.revert(direction);
+        position.set(core.position());
+        solved.set(core.isSolved());
+        ACTIVE.set(core.active());
     }
 
     /**
@@ -271,13 +216,7 @@ public class SoldierState implements State<Direction> {
      */
     @Override
     public Set<Direction> getLegalMoves() {
-        var legalMoves = EnumSet.noneOf(Direction.class);
-        for (var direction : Direction.values()) {
-            if (isLegalMove(direction)) {
-                legalMoves.add(direction);
-            }
-        }
-        return legalMoves;
+        return core.getLegalMoves();
     }
 
     @Override
@@ -285,33 +224,24 @@ public class SoldierState implements State<Direction> {
         if (o == this) {
             return true;
         }
-        return (o instanceof SoldierState other)
-                && getPosition(SOLDIER).equals(other.getPosition(SOLDIER))
-                && getPosition(BLACK_BLOCK1).equals(other.getPosition(BLACK_BLOCK1))
-                && getPosition(BLACK_BLOCK2).equals(other.getPosition(BLACK_BLOCK2))
-                && getPosition(BOARD_SIZE).equals(other.getPosition(BOARD_SIZE));    }
+        return (o instanceof SoldierState other) && core.equals(other.core);
+    }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getPosition(SOLDIER), getPosition(BLACK_BLOCK1),
-                getPosition(BLACK_BLOCK2), getPosition(BOARD_SIZE));
+        return core.hashCode();
     }
 
     @Override
     public SoldierState clone() {
-        SoldierState copy = new SoldierState(getPosition(SOLDIER), getPosition(BLACK_BLOCK1),
-                getPosition(BLACK_BLOCK2), getPosition(BOARD_SIZE));
-
-        copy.ACTIVE.set(this.ACTIVE.get());
-        return copy;
-
+        return new SoldierState(core);
     }
 
     @Override
     public String toString() {
         var sj = new StringJoiner(",", "[", "]");
-        for (var position : positions) {
-            sj.add(position.toString());
+        for (var n = SOLDIER; n <= BOARD_SIZE; n++) {
+            sj.add(getPosition(n).toString());
         }
         return sj.toString();
     }
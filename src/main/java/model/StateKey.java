@@ -0,0 +1,78 @@
+package model;
+
+/**
+ * Immutable identity of a {@link SoldierState} on a given board, consisting
+ * of the position of the soldier and the active cannons. Two states of the
+ * same board have the same legal moves if and only if their keys are equal.
+ *
+ * <p>A key can be packed into a single {@code int}, with the row in bits
+ * 16&ndash;30, the column in bits 1&ndash;15 and the active cannons in bit 0.
+ *
+ * @param row the row of the soldier
+ * @param col the column of the soldier
+ * @param active the active cannons, either 1 or 2
+ */
+public record StateKey(int row, int col, int active) {
+
+    /**
+     * The largest row or column index that can be packed.
+     */
+    public static final int MAX_COORDINATE = 0x7FFF;
+
+    public StateKey {
+        if (row < 0 || row > MAX_COORDINATE || col < 0 || col > MAX_COORDINATE) {
+            throw new IllegalArgumentException(String.format("Position (%d,%d) cannot be packed", row, col));
+        }
+        if (active != 1 && active != 2) {
+            throw new IllegalArgumentException("Invalid active cannons: " + active);
+        }
+    }
+
+    /**
+     * Creates a {@code StateKey} object from the position of the soldier and
+     * the active cannons.
+     *
+     * @param position the position of the soldier
+     * @param active the active cannons, either 1 or 2
+     */
+    public StateKey(Position position, int active) {
+        this(position.row(), position.col(), active);
+    }
+
+    /**
+     * {@return the key of the state specified}
+     *
+     * @param state a state of the puzzle
+     */
+    public static StateKey of(SoldierState state) {
+        return state.getKey();
+    }
+
+    /**
+     * {@return the position of the soldier}
+     */
+    public Position position() {
+        return new Position(row, col);
+    }
+
+    /**
+     * {@return the key packed into a single non-negative {@code int}}
+     */
+    public int pack() {
+        return row << 16 | col << 1 | (active - 1);
+    }
+
+    /**
+     * {@return the key that was packed into the value specified}
+     *
+     * @param packed a value returned by {@link #pack()}
+     */
+    public static StateKey unpack(int packed) {
+        return new StateKey(packed >>> 16, (packed >>> 1) & MAX_COORDINATE, (packed & 1) + 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%d,%d)@%d", row, col, active);
+    }
+}
@@ -0,0 +1,158 @@
+package result;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the operations of a {@link GameResultManager} on an executor and
+ * returns their results as {@link CompletableFuture}s, so that the calling
+ * thread, e.g., the JavaFX application thread, never blocks on I/O. The
+ * manager itself is also opened on the executor. The operations run one at
+ * a time in the order they were requested, so a query sees the results
+ * added before it was requested.
+ *
+ * <p>The futures are completed exceptionally with a
+ * {@link CompletionException} wrapping the {@link IOException} if an
+ * operation fails.
+ */
+public class AsyncGameResultManager implements AutoCloseable {
+
+    /**
+     * Opens a game result manager.
+     */
+    @FunctionalInterface
+    public interface Opener {
+        GameResultManager open() throws IOException;
+    }
+
+    /**
+     * An operation on a game result manager.
+     *
+     * @param <T> the type of the result of the operation
+     */
+    @FunctionalInterface
+    public interface Operation<T> {
+        T apply(GameResultManager manager) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final CompletableFuture<GameResultManager> manager;
+    private CompletableFuture<?> tail;
+    private boolean closed;
+
+    /**
+     * Creates an {@code AsyncGameResultManager} object that runs the
+     * operations on virtual threads.
+     *
+     * @param opener opens the game result manager
+     */
+    public AsyncGameResultManager(@NonNull Opener opener) {
+        this(opener, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Creates an {@code AsyncGameResultManager} object that runs the
+     * operations on the executor specified, which is shut down by
+     * {@link #close()}.
+     *
+     * @param opener opens the game result manager
+     * @param executor the executor running the operations
+     */
+    public AsyncGameResultManager(@NonNull Opener opener, @NonNull ExecutorService executor) {
+        this.executor = executor;
+        this.manager = CompletableFuture.supplyAsync(() -> call(opener::open), executor);
+        this.tail = manager;
+    }
+
+    /**
+     * Adds a new game result.
+     *
+     * @param result the game result to add
+     * @return a future that is completed when the result has been added
+     */
+    public CompletableFuture<Void> add(@NonNull GameResult result) {
+        return run(manager -> {
+            manager.add(result);
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves all game results.
+     *
+     * @return a future completed with the list of all game results
+     */
+    public CompletableFuture<List<GameResult>> getAll() {
+        return run(GameResultManager::getAll);
+    }
+
+    /**
+     * Retrieves the best solved game results.
+     *
+     * @param limit the maximum number of results returned
+     * @return a future completed with the best solved game results
+     */
+    public CompletableFuture<List<GameResult>> getBest(int limit) {
+        return run(manager -> manager.getBest(limit));
+    }
+
+    /**
+     * Runs an operation on the game result manager, e.g., one of its
+     * queries.
+     *
+     * @param operation the operation
+     * @return a future completed with the result of the operation
+     * @param <T> the type of the result of the operation
+     */
+    public synchronized <T> CompletableFuture<T> run(@NonNull Operation<T> operation) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("The game result manager is closed"));
+        }
+        var future = tail.handle((value, exception) -> null)
+                .thenApplyAsync(ignored -> call(() -> operation.apply(manager.join())), executor);
+        tail = future;
+        return future;
+    }
+
+    /**
+     * Waits for the pending operations, shuts down the executor and closes
+     * the game result manager if it is {@link Closeable}.
+     *
+     * @throws IOException if the game result manager cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        CompletableFuture<?> last;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            last = tail;
+        }
+        last.handle((value, exception) -> null).join();
+        executor.shutdown();
+        if (!manager.isCompletedExceptionally() && manager.join() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+
+    private static <T> T call(IOSupplier<T> supplier) {
+        try {
+            return supplier.get();
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
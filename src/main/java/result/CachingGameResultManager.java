@@ -0,0 +1,233 @@
+package result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the game results of another {@link GameResultManager} in memory, so
+ * that repeated queries do not read the underlying file. Results added are
+ * written through to the other manager and added to the cached results.
+ *
+ * <p>The cached results are reloaded when the file is modified by someone
+ * else, e.g., another process. Modifications are detected by comparing the
+ * last modification time, size and key of the file with the ones recorded
+ * when the results were loaded. If the file system supports it, the
+ * directory of the file is watched, and the file is only checked after an
+ * event has been reported for it.
+ *
+ * <p>The other manager must read the file when {@link #getAll()} is called,
+ * like {@link JsonGameResultManager} and
+ * {@link ConcurrentGameResultManager} do. A modification that happens
+ * while a result is being added may remain unnoticed until the file is
+ * modified again.
+ *
+ * <p>The application keeps its {@link ConcurrentGameResultManager} behind a
+ * single {@code CachingGameResultManager}, so that opening the high-score
+ * table does not read the file unless another instance has added results.
+ */
+public class CachingGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * The number of best results kept sorted, which answer
+     * {@link #getBest(int)} for limits that are not greater.
+     */
+    public static final int LEADERBOARD_CAPACITY = 100;
+
+    private final GameResultManager delegate;
+    private final Path filePath;
+    private final WatchService watchService;
+    private volatile boolean changed = true;
+    private List<GameResult> results;
+    private Leaderboard leaderboard;
+    private Stamp stamp;
+
+    /**
+     * Creates a {@code CachingGameResultManager} object that watches the
+     * file for modifications.
+     *
+     * @param delegate the game result manager whose results are cached
+     * @param filePath the path to the file where the game result manager
+     *                 stores the results
+     */
+    public CachingGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath) {
+        this(delegate, filePath, true);
+    }
+
+    /**
+     * Creates a {@code CachingGameResultManager} object.
+     *
+     * @param delegate the game result manager whose results are cached
+     * @param filePath the path to the file where the game result manager
+     *                 stores the results
+     * @param watch whether the directory of the file is watched, otherwise
+     *              the file is checked on every query
+     */
+    public CachingGameResultManager(@NonNull GameResultManager delegate, @NonNull Path filePath, boolean watch) {
+        this.delegate = delegate;
+        this.filePath = filePath.toAbsolutePath().normalize();
+        this.watchService = watch ? watch() : null;
+    }
+
+    /**
+     * Adds a new game result to the other manager and to the cached results.
+     *
+     * @param result the game result to add
+     * @return a snapshot of all game results including the newly added
+     * result, which is copied from the cached results when it is first
+     * accessed
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized List<GameResult> add(@NonNull GameResult result) throws IOException {
+        refresh();
+        delegate.add(result);
+        results.add(result);
+        leaderboard.add(result);
+        // The file has been modified by ourselves, which must not cause a reload.
+        stamp = Stamp.of(filePath);
+        return new LazyResultList(this, () -> results, results.size());
+    }
+
+    /**
+     * Retrieves all game results from the cache.
+     *
+     * @return a list of all game results
+     * @throws IOException if an I/O error occurs while reloading the results
+     */
+    @Override
+    public synchronized List<GameResult> getAll() throws IOException {
+        refresh();
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * Retrieves the best solved game results from the cache, without copying
+     * all the results if the limit is not greater than
+     * {@link #LEADERBOARD_CAPACITY}.
+     *
+     * @param limit the maximum number of results returned
+     * @return the best solved game results in the order of
+     * {@link Leaderboard#ORDER}
+     * @throws IOException if an I/O error occurs while reloading the results
+     */
+    @Override
+    public synchronized List<GameResult> getBest(int limit) throws IOException {
+        if (limit <= LEADERBOARD_CAPACITY) {
+            refresh();
+            return leaderboard.getBest(limit);
+        }
+        return GameResultManager.super.getBest(limit);
+    }
+
+    /**
+     * Stops watching the file and closes the other manager if it is
+     * {@link Closeable}.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void refresh() throws IOException {
+        if (results != null && watchService != null && !changed) {
+            return;
+        }
+        // Cleared before the file is checked, so that a modification reported meanwhile is checked next time.
+        changed = false;
+        var current = Stamp.of(filePath);
+        if (results != null) {
+            if (current.equals(stamp)) {
+                return;
+            }
+            Logger.info("{} has been modified, reloading game results", filePath);
+        }
+        var loaded = new ArrayList<>(delegate.getAll());
+        var best = new Leaderboard(LEADERBOARD_CAPACITY);
+        loaded.forEach(best::add);
+        results = loaded;
+        leaderboard = best;
+        stamp = current;
+    }
+
+    private WatchService watch() {
+        var directory = filePath.getParent();
+        WatchService service = null;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException | UnsupportedOperationException e) {
+            Logger.warn("Cannot watch {}, checking it on every query instead", directory);
+            closeQuietly(service);
+            return null;
+        }
+        var watching = service;
+        var watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    var key = watching.take();
+                    for (var event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || filePath.getFileName().equals(event.context())) {
+                            changed = true;
+                        }
+                    }
+                    key.reset();
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                // The manager has been closed.
+            }
+        }, "game-result-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return service;
+    }
+
+    private static void closeQuietly(WatchService service) {
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            Logger.warn(e, "Failed to close the watch service");
+        }
+    }
+
+    /**
+     * The attributes of a file that change when the file is modified.
+     */
+    private record Stamp(FileTime lastModified, long size, Object fileKey) {
+
+        static final Stamp MISSING = new Stamp(null, -1, null);
+
+        static Stamp of(Path path) throws IOException {
+            try {
+                var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new Stamp(attributes.lastModifiedTime(), attributes.size(), attributes.fileKey());
+            } catch (NoSuchFileException e) {
+                return MISSING;
+            }
+        }
+    }
+}
@@ -0,0 +1,562 @@
+package result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Manages game results in a directory of column files, one file per field
+ * of {@link GameResult}. The columns have fixed-width little-endian values:
+ * <ul>
+ *     <li>{@code solved.bin}: one byte, 1 if the game was solved,</li>
+ *     <li>{@code steps.bin}: the number of steps as an {@code int},</li>
+ *     <li>{@code duration.bin}: the duration in nanoseconds as a {@code long},</li>
+ *     <li>{@code created.bin}: the creation time in nanoseconds since the
+ *     epoch as a {@code long},</li>
+ *     <li>{@code player.bin}: the index of the player name in the
+ *     dictionary as an {@code int}.</li>
+ * </ul>
+ * The dictionary {@code players.bin} contains the distinct player names in
+ * order of first appearance, each as an {@code int} length followed by the
+ * UTF-8 bytes of the name. The levels and the moves of the results are not
+ * stored. Since the times are stored in nanoseconds, results created
+ * outside the years 1677 to 2262 or taking longer than 292 years are
+ * rejected.
+ *
+ * <p>The columns are read through memory-mapped buffers, which are returned
+ * by {@link #getColumns()}, so aggregate queries can scan primitive values
+ * without creating {@code GameResult} objects. The creation times are
+ * restored in UTC.
+ *
+ * <p>The queries of {@link GameResultManager} are answered from a
+ * {@link ResultIndex}, which is prepared when a query is first made and then
+ * kept up to date as results are added. The index is saved to the snapshot
+ * {@code index.bin} when the manager is closed, if more than 1/16 of its rows
+ * have been added since the last snapshot. The next time a query is made,
+ * the snapshot is mapped into memory, and only the rows added after it are
+ * read from the columns, so a query does not scan all the rows even in a new
+ * process. The index is rebuilt from the columns if the snapshot is missing
+ * or does not match them.
+ *
+ * <p>When the directory is opened, the columns are truncated to the number of
+ * complete rows whose player names are in the dictionary, which discards the
+ * last rows if a crash interrupted writing them. The results added are
+ * synced to the storage device by {@link #sync()} and {@link #close()}.
+ * The directory must not be modified by others while it is open.
+ */
+public class ColumnarGameResultManager implements GameResultManager, Closeable {
+
+    private static final int SOLVED = 0;
+    private static final int STEPS = 1;
+    private static final int DURATION = 2;
+    private static final int CREATED = 3;
+    private static final int PLAYER = 4;
+    private static final String[] COLUMN_NAMES = {"solved.bin", "steps.bin", "duration.bin", "created.bin",
+            "player.bin"};
+    private static final int[] WIDTHS = {Byte.BYTES, Integer.BYTES, Long.BYTES, Long.BYTES, Integer.BYTES};
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final String INDEX_NAME = "index.bin";
+    private static final int SNAPSHOT_FRACTION = 16;
+
+    private final Path directory;
+    private final FileChannel[] columns = new FileChannel[COLUMN_NAMES.length];
+    private final ByteBuffer row = ByteBuffer.allocate(Arrays.stream(WIDTHS).sum()).order(ByteOrder.LITTLE_ENDIAN);
+    private final List<String> players = new ArrayList<>();
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private FileChannel dictionary;
+    private int size;
+    private ResultIndex index;
+
+    /**
+     * Creates a {@code ColumnarGameResultManager} object with the specified
+     * directory, which is created if it does not exist.
+     *
+     * @param directory the directory of the column files
+     * @throws IOException if an I/O error occurs
+     */
+    public ColumnarGameResultManager(@NonNull Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        try {
+            dictionary = open("players.bin");
+            for (var i = 0; i < columns.length; i++) {
+                columns[i] = open(COLUMN_NAMES[i]);
+            }
+            recover();
+        } catch (IOException | RuntimeException e) {
+            closeChannels();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a new game result to the columns.
+     *
+     * @param result the game result to add
+     * @return a snapshot of all game results including the newly added
+     * result, which reads the results when it is first accessed
+     * @throws IllegalArgumentException if the duration or the creation time
+     * of the result cannot be stored in nanoseconds as a {@code long}
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized List<GameResult> add(@NonNull GameResult result) throws IOException {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE / Long.BYTES) {
+            throw new IOException("Too many game results");
+        }
+        long durationNanos;
+        long createdNanos;
+        try {
+            durationNanos = result.getDuration().toNanos();
+            createdNanos = toEpochNanos(result.getCreated().toInstant());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Duration or creation time out of range: " + result, e);
+        }
+        var player = getPlayerId(result.getPlayerName());
+        row.clear()
+                .put((byte) (result.isSolved() ? 1 : 0))
+                .putInt(result.getSteps())
+                .putLong(durationNanos)
+                .putLong(createdNanos)
+                .putInt(player);
+        var offset = 0;
+        for (var i = 0; i < columns.length; i++) {
+            write(columns[i], row.slice(offset, WIDTHS[i]), (long) size * WIDTHS[i]);
+            offset += WIDTHS[i];
+        }
+        if (index != null) {
+            index.add(size, player, result.isSolved(), result.getSteps(), durationNanos, createdNanos);
+        }
+        size++;
+        var rows = size;
+        return new LazyResultList(this, () -> getPage(0, rows), rows);
+    }
+
+    /**
+     * Retrieves all game results.
+     *
+     * @return a list of all game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized List<GameResult> getAll() throws IOException {
+        var columns = getColumns();
+        var results = new ArrayList<GameResult>(columns.size());
+        for (var i = 0; i < columns.size(); i++) {
+            results.add(columns.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Streams the game results, which are created from the columns one by
+     * one.
+     *
+     * @return a stream of all game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        var columns = getColumns();
+        return IntStream.range(0, columns.size()).mapToObj(columns::get);
+    }
+
+    /**
+     * {@return the number of game results}
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Maps the columns into memory. The buffers returned cover the results
+     * added so far and remain valid after the manager is closed.
+     *
+     * @return the columns of the game results
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized Columns getColumns() throws IOException {
+        ensureOpen();
+        return new Columns(size,
+                map(SOLVED),
+                map(STEPS).asIntBuffer(),
+                map(DURATION).asLongBuffer(),
+                map(CREATED).asLongBuffer(),
+                map(PLAYER).asIntBuffer(),
+                List.copyOf(players));
+    }
+
+    @Override
+    public synchronized List<GameResult> getPage(int offset, int limit) throws IOException {
+        Queries.checkPage(offset, limit);
+        var columns = getColumns();
+        var results = new ArrayList<GameResult>();
+        for (var i = offset; i < columns.size() && i - offset < limit; i++) {
+            results.add(columns.get(i));
+        }
+        return results;
+    }
+
+    @Override
+    public synchronized List<GameResult> getCreatedBetween(@NonNull ZonedDateTime from, @NonNull ZonedDateTime to,
+                                                           int offset, int limit) throws IOException {
+        Queries.checkPage(offset, limit);
+        var index = index();
+        var columns = getColumns();
+        var start = index.lowerBound(toEpochNanosSaturated(from.toInstant()));
+        var end = index.lowerBound(toEpochNanosSaturated(to.toInstant()));
+        var results = new ArrayList<GameResult>();
+        for (var i = start + (long) offset; i < end && results.size() < limit; i++) {
+            results.add(columns.get(index.getRowByCreated((int) i)));
+        }
+        return results;
+    }
+
+    @Override
+    public synchronized PlayerStats getPlayerStats(@NonNull String playerName) throws IOException {
+        var index = index();
+        var player = playerIds.get(playerName);
+        if (player == null || index.getSolvedGames(player) == 0) {
+            return new PlayerStats(playerName, player == null ? 0 : index.getGames(player), 0, Optional.empty(),
+                    0, Duration.ZERO);
+        }
+        var solvedGames = index.getSolvedGames(player);
+        return new PlayerStats(playerName, index.getGames(player), solvedGames,
+                Optional.of(getColumns().get(index.getBestRow(player))),
+                (double) index.getTotalSteps(player) / solvedGames,
+                Duration.ofNanos(index.getTotalDurationNanos(player) / solvedGames));
+    }
+
+    @Override
+    public synchronized Optional<Duration> getDurationPercentile(double percentile) throws IOException {
+        Queries.checkPercentile(percentile);
+        var durations = index().getDurations();
+        return durations.size() == 0
+                ? Optional.empty()
+                : Optional.of(Duration.ofNanos(durations.get(Queries.rank(percentile, durations.size()))));
+    }
+
+    @Override
+    public synchronized OptionalInt getStepsPercentile(double percentile) throws IOException {
+        Queries.checkPercentile(percentile);
+        var steps = index().getSteps();
+        return steps.size() == 0
+                ? OptionalInt.empty()
+                : OptionalInt.of((int) steps.get(Queries.rank(percentile, steps.size())));
+    }
+
+    /**
+     * Counts the solved game results by the number of steps.
+     *
+     * @return the histogram of the number of steps of the solved game
+     * results, the element at index {@code i} is the number of results with
+     * {@code i} steps, results with a negative number of steps are not
+     * counted
+     * @throws IOException if an I/O error occurs
+     */
+    public long[] getStepsHistogram() throws IOException {
+        var columns = getColumns();
+        var histogram = new long[0];
+        for (var i = 0; i < columns.size(); i++) {
+            if (columns.solved().get(i) == 0) {
+                continue;
+            }
+            var steps = columns.steps().get(i);
+            if (steps < 0) {
+                continue;
+            }
+            if (steps >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(steps + 1, histogram.length * 2));
+            }
+            histogram[steps]++;
+        }
+        var length = histogram.length;
+        while (length > 0 && histogram[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(histogram, length);
+    }
+
+    /**
+     * Computes a percentile of the durations of the solved game results of
+     * each player, using the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 exclusive and 100 inclusive
+     * @return the percentile of the durations by player name, in order of
+     * first appearance of the players
+     * @throws IOException if an I/O error occurs
+     */
+    public Map<String, Duration> getDurationPercentiles(double percentile) throws IOException {
+        Queries.checkPercentile(percentile);
+        var columns = getColumns();
+        var counts = new int[columns.players().size()];
+        for (var i = 0; i < columns.size(); i++) {
+            if (columns.solved().get(i) != 0) {
+                counts[columns.playerIds().get(i)]++;
+            }
+        }
+        var durations = new long[counts.length][];
+        for (var player = 0; player < counts.length; player++) {
+            durations[player] = new long[counts[player]];
+        }
+        Arrays.fill(counts, 0);
+        for (var i = 0; i < columns.size(); i++) {
+            if (columns.solved().get(i) != 0) {
+                var player = columns.playerIds().get(i);
+                durations[player][counts[player]++] = columns.durationNanos().get(i);
+            }
+        }
+        var percentiles = new LinkedHashMap<String, Duration>();
+        for (var player = 0; player < counts.length; player++) {
+            if (counts[player] == 0) {
+                continue;
+            }
+            Arrays.sort(durations[player]);
+            percentiles.put(columns.players().get(player),
+                    Duration.ofNanos(durations[player][Queries.rank(percentile, counts[player])]));
+        }
+        return Collections.unmodifiableMap(percentiles);
+    }
+
+    /**
+     * Forces the results added to the storage device.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void sync() throws IOException {
+        ensureOpen();
+        dictionary.force(false);
+        for (var column : columns) {
+            column.force(false);
+        }
+    }
+
+    /**
+     * Syncs and closes the column files, and saves the index if necessary.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (dictionary == null) {
+            return;
+        }
+        try {
+            sync();
+            if (index != null && index.getAddedRows() > 0
+                    && (long) index.getAddedRows() * SNAPSHOT_FRACTION >= index.getRows()) {
+                index.write(directory.resolve(INDEX_NAME));
+            }
+        } finally {
+            closeChannels();
+        }
+    }
+
+    /**
+     * Read-only memory-mapped columns of the game results. The values of the
+     * result at index {@code i} are at index {@code i} of every buffer.
+     *
+     * @param size the number of game results
+     * @param solved whether the games were solved, 1 if solved, 0 otherwise
+     * @param steps the number of steps
+     * @param durationNanos the durations in nanoseconds
+     * @param createdEpochNanos the creation times in nanoseconds since the
+     *                          epoch
+     * @param playerIds the indexes of the player names in {@code players}
+     * @param players the dictionary of the player names
+     */
+    public record Columns(int size, ByteBuffer solved, IntBuffer steps, LongBuffer durationNanos,
+                          LongBuffer createdEpochNanos, IntBuffer playerIds, List<String> players) {
+
+        /**
+         * {@return the game result at the index specified}
+         *
+         * @param index the index of the game result
+         */
+        public GameResult get(int index) {
+            var created = createdEpochNanos.get(index);
+            return GameResult.builder()
+                    .playerName(players.get(playerIds.get(index)))
+                    .solved(solved.get(index) != 0)
+                    .steps(steps.get(index))
+                    .duration(Duration.ofNanos(durationNanos.get(index)))
+                    .created(ZonedDateTime.ofInstant(Instant.ofEpochSecond(Math.floorDiv(created, NANOS_PER_SECOND),
+                            Math.floorMod(created, NANOS_PER_SECOND)), ZoneOffset.UTC))
+                    .build();
+        }
+    }
+
+    private ResultIndex index() throws IOException {
+        if (index == null) {
+            var built = readIndex();
+            var columns = getColumns();
+            for (var i = built.getRows(); i < columns.size(); i++) {
+                built.add(i, columns.playerIds().get(i), columns.solved().get(i) != 0, columns.steps().get(i),
+                        columns.durationNanos().get(i), columns.createdEpochNanos().get(i));
+            }
+            index = built;
+        }
+        return index;
+    }
+
+    /**
+     * Reads the snapshot of the index, or returns an empty index if there is
+     * no valid snapshot of the rows.
+     */
+    private ResultIndex readIndex() {
+        var path = directory.resolve(INDEX_NAME);
+        if (!Files.exists(path)) {
+            return new ResultIndex();
+        }
+        try {
+            var snapshot = ResultIndex.read(path);
+            if (snapshot.getRows() <= size) {
+                return snapshot;
+            }
+            Logger.warn("The index {} has more rows than the columns", path);
+        } catch (IOException e) {
+            Logger.warn("Failed to read the index {}", path);
+        }
+        Logger.info("Rebuilding the index {}", path);
+        return new ResultIndex();
+    }
+
+    private static long toEpochNanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+    }
+
+    private static long toEpochNanosSaturated(Instant instant) {
+        try {
+            return toEpochNanos(instant);
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    private int getPlayerId(String playerName) throws IOException {
+        var id = playerIds.get(playerName);
+        if (id != null) {
+            return id;
+        }
+        var name = playerName.getBytes(StandardCharsets.UTF_8);
+        var entry = ByteBuffer.allocate(Integer.BYTES + name.length).putInt(name.length).put(name).flip();
+        write(dictionary, entry, dictionary.size());
+        players.add(playerName);
+        playerIds.put(playerName, players.size() - 1);
+        return players.size() - 1;
+    }
+
+    private void recover() throws IOException {
+        var end = 0L;
+        var dictionaryLength = dictionary.size();
+        var header = ByteBuffer.allocate(Integer.BYTES);
+        while (end + Integer.BYTES <= dictionaryLength) {
+            header.clear();
+            dictionary.read(header, end);
+            var length = header.flip().getInt();
+            if (length < 0 || end + Integer.BYTES + length > dictionaryLength) {
+                break;
+            }
+            var name = ByteBuffer.allocate(length);
+            while (name.hasRemaining() && dictionary.read(name, end + Integer.BYTES + name.position()) != -1) {
+                // Reads the whole name.
+            }
+            var playerName = new String(name.array(), StandardCharsets.UTF_8);
+            playerIds.put(playerName, players.size());
+            players.add(playerName);
+            end += Integer.BYTES + length;
+        }
+        if (end < dictionaryLength) {
+            Logger.warn("Truncating a partially written player name in {}", directory);
+            dictionary.truncate(end);
+        }
+        var rows = Long.MAX_VALUE;
+        for (var i = 0; i < columns.length; i++) {
+            rows = Math.min(rows, columns[i].size() / WIDTHS[i]);
+        }
+        size = (int) Math.min(rows, Integer.MAX_VALUE / Long.BYTES);
+        var ids = map(PLAYER).asIntBuffer();
+        for (var i = 0; i < size; i++) {
+            var id = ids.get(i);
+            if (id < 0 || id >= players.size()) {
+                size = i;
+                break;
+            }
+        }
+        for (var i = 0; i < columns.length; i++) {
+            if (columns[i].size() > (long) size * WIDTHS[i]) {
+                Logger.warn("Truncating {} to {} rows", COLUMN_NAMES[i], size);
+                columns[i].truncate((long) size * WIDTHS[i]);
+            }
+        }
+    }
+
+    private ByteBuffer map(int column) throws IOException {
+        return columns[column].map(FileChannel.MapMode.READ_ONLY, 0, (long) size * WIDTHS[column])
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private FileChannel open(String name) throws IOException {
+        return FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (dictionary == null) {
+            throw new IOException("The game result manager is closed");
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        IOException exception = null;
+        for (var channel : columns) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (dictionary != null) {
+            dictionary.close();
+        }
+        dictionary = null;
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
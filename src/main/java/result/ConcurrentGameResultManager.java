@@ -0,0 +1,299 @@
+package result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Manages game results in a JSON Lines file that is shared by several
+ * threads and processes.
+ *
+ * <p>Within a process, the results added are put into a queue, which is
+ * drained by a single writer thread. All the results pending in the queue are
+ * appended to the file by one write followed by one sync, while holding an
+ * exclusive lock on the file, which keeps writers of other processes out.
+ * Before appending, the writer truncates a partially written last line that
+ * was left behind by a writer that crashed.
+ *
+ * <p>Readers do not lock the file. Since the file is only appended to, the
+ * complete lines up to its current length form a consistent snapshot of the
+ * results, and a partially written last line is simply ignored.
+ *
+ * <p>The file format is the same as the one of
+ * {@link JsonLinesGameResultManager}.
+ */
+public class ConcurrentGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * The maximum number of results written at once.
+     */
+    public static final int MAX_BATCH_SIZE = 1024;
+
+    private static final byte NEWLINE = '\n';
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // File locks are held by the whole process, so writers of the same file within the process must take turns.
+    private static final Map<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path filePath;
+    private final ReentrantLock processLock;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a {@code ConcurrentGameResultManager} object with the specified
+     * file path and starts its writer thread.
+     *
+     * @param filePath the path to the JSON Lines file where game results are
+     *                 stored
+     */
+    public ConcurrentGameResultManager(@NonNull Path filePath) {
+        this.filePath = filePath.toAbsolutePath().normalize();
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(this.filePath, path -> new ReentrantLock());
+        writer = new Thread(this::drain, "game-result-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Submits a new game result to be appended to the file by the writer
+     * thread.
+     *
+     * @param result the game result to add
+     * @return a future that is completed when the result has been written and
+     * synced to the storage device
+     */
+    public CompletableFuture<Void> submit(@NonNull GameResult result) {
+        var pending = new Pending(result, new CompletableFuture<>());
+        synchronized (queue) {
+            if (closed) {
+                pending.written().completeExceptionally(new IOException("The game result manager is closed"));
+            } else {
+                queue.add(pending);
+            }
+        }
+        return pending.written();
+    }
+
+    /**
+     * Adds a new game result to the file and waits until it has been written
+     * and synced to the storage device.
+     *
+     * @param result the game result to add
+     * @return a list of all game results including the newly added result,
+     * which reads the results from the file when it is first accessed, thus
+     * it also includes the results added by others until then
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> add(@NonNull GameResult result) throws IOException {
+        try {
+            submit(result).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while adding a game result", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+        return new LazyResultList(new Object(), this::getAll);
+    }
+
+    /**
+     * Retrieves the game results that have been completely written to the
+     * file, without blocking the writers.
+     *
+     * @return a list of all game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        var results = new ArrayList<GameResult>();
+        if (!Files.exists(filePath)) {
+            return results;
+        }
+        try (var channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            var length = channel.size();
+            var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            var line = new ByteArrayOutputStream();
+            for (var offset = 0L; offset < length; offset += buffer.position(), buffer.clear()) {
+                buffer.limit((int) Math.min(BUFFER_SIZE, length - offset));
+                if (channel.read(buffer, offset) == -1) {
+                    break;
+                }
+                var bytes = buffer.array();
+                var start = 0;
+                for (var i = 0; i < buffer.position(); i++) {
+                    if (bytes[i] == NEWLINE) {
+                        line.write(bytes, start, i - start);
+                        parse(line.toByteArray(), results);
+                        line.reset();
+                        start = i + 1;
+                    }
+                }
+                line.write(bytes, start, buffer.position() - start);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Stops accepting new results, waits until the pending ones have been
+     * written, and stops the writer thread.
+     *
+     * @throws IOException if the writer thread is interrupted
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(Pending.POISON);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the game result manager", e);
+        }
+    }
+
+    private void drain() {
+        var batch = new ArrayList<Pending>();
+        try {
+            for (var stop = false; !stop; batch.clear()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                stop = batch.remove(Pending.POISON);
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            // The results already submitted are written before the thread exits. The interrupt status is restored
+            // afterwards, since it would close the file channel.
+            synchronized (queue) {
+                closed = true;
+            }
+            while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+                batch.remove(Pending.POISON);
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                batch.clear();
+            }
+            Logger.warn("The writer of {} was interrupted", filePath);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            var bytes = new ByteArrayOutputStream();
+            for (var pending : batch) {
+                bytes.write(JacksonHelper.writeValueAsBytes(pending.result()));
+                bytes.write(NEWLINE);
+            }
+            append(ByteBuffer.wrap(bytes.toByteArray()));
+            Logger.trace("Wrote {} game results to {}", batch.size(), filePath);
+            batch.forEach(pending -> pending.written().complete(null));
+        } catch (IOException | RuntimeException e) {
+            Logger.error(e, "Failed to write {} game results to {}", batch.size(), filePath);
+            batch.forEach(pending -> pending.written().completeExceptionally(e));
+        }
+    }
+
+    private void append(ByteBuffer lines) throws IOException {
+        processLock.lock();
+        try (var channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            var fileLock = channel.lock();
+            try {
+                var position = truncateTornLine(channel);
+                while (lines.hasRemaining()) {
+                    position += channel.write(lines, position);
+                }
+                channel.force(false);
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    /**
+     * Truncates the file after its last line break and returns the new
+     * length.
+     */
+    private long truncateTornLine(FileChannel channel) throws IOException {
+        var length = channel.size();
+        if (length == 0 || readByte(channel, length - 1) == NEWLINE) {
+            return length;
+        }
+        var end = 0L;
+        var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        for (var blockEnd = length; blockEnd > 0 && end == 0; ) {
+            var blockStart = Math.max(0, blockEnd - BUFFER_SIZE);
+            buffer.clear().limit((int) (blockEnd - blockStart));
+            while (buffer.hasRemaining() && channel.read(buffer, blockStart + buffer.position()) != -1) {
+                // Reads the whole block.
+            }
+            for (var i = buffer.position() - 1; i >= 0 && end == 0; i--) {
+                if (buffer.get(i) == NEWLINE) {
+                    end = blockStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        Logger.warn("Truncating a partially written record of {} bytes at the end of {}", length - end, filePath);
+        channel.truncate(end);
+        return end;
+    }
+
+    private static byte readByte(FileChannel channel, long position) throws IOException {
+        var buffer = ByteBuffer.allocate(1);
+        if (channel.read(buffer, position) != 1) {
+            throw new IOException("Unexpected end of file");
+        }
+        return buffer.get(0);
+    }
+
+    private void parse(byte[] line, List<GameResult> results) {
+        if (line.length == 0) {
+            return;
+        }
+        try {
+            results.add(JacksonHelper.readValue(line, 0, line.length, GameResult.class));
+        } catch (IOException e) {
+            Logger.warn("Skipping invalid record in {}", filePath);
+        }
+    }
+
+    private record Pending(GameResult result, CompletableFuture<Void> written) {
+        static final Pending POISON = new Pending(null, null);
+    }
+}
@@ -1,5 +1,6 @@
 package result;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.time.Duration;
@@ -18,4 +19,16 @@ public class GameResult {
     private int steps;
     @NonNull private Duration duration;
     @NonNull private ZonedDateTime created;
+    /**
+     * The name of the level played, {@code null} for the first level.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String level;
+    /**
+     * The moves made, encoded by {@link model.Moves#encode(java.util.List)},
+     * whose number is {@code steps}. It is {@code null} for results that were
+     * recorded without their moves.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private byte[] moves;
 }
@@ -1,23 +1,178 @@
 package result;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 /**
  * An interface for managing game results.
+ *
+ * <p>The default implementations of the queries scan all the results, which
+ * implementations that maintain indexes are expected to override.
  */
 public interface GameResultManager {
     List<GameResult> add(GameResult result) throws IOException;
 
     List<GameResult> getAll() throws IOException;
 
+    /**
+     * Returns the game results as a stream, which must be closed after use.
+     * Implementations may read the results lazily, so that they are not kept
+     * in memory all at once.
+     *
+     * @return a stream of all game results, which throws
+     * {@link UncheckedIOException} if the results cannot be read
+     * @throws IOException if an I/O error occurs
+     */
+    default Stream<GameResult> stream() throws IOException {
+        return getAll().stream();
+    }
+
     default List<GameResult> getBest(int limit) throws IOException {
-        return getAll()
-                .stream()
-                .filter(GameResult::isSolved)
-                .sorted(Comparator.comparingInt(GameResult::getSteps))
-                .limit(limit)
-                .toList();
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        if (limit == 0) {
+            return List.of();
+        }
+        var leaderboard = new Leaderboard(limit);
+        try (var results = stream()) {
+            results.forEach(leaderboard::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return leaderboard.getBest(limit);
+    }
+
+    /**
+     * Retrieves a page of the game results in the order they were added.
+     *
+     * @param offset the number of results skipped
+     * @param limit the maximum number of results returned
+     * @return the game results of the page
+     * @throws IOException if an I/O error occurs
+     */
+    default List<GameResult> getPage(int offset, int limit) throws IOException {
+        Queries.checkPage(offset, limit);
+        try (var results = stream()) {
+            return results.skip(offset).limit(limit).toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Retrieves a page of the game results created within a time range, in
+     * order of creation. Results created at the same instant are in the
+     * order they were added.
+     *
+     * @param from the start of the time range, inclusive
+     * @param to the end of the time range, exclusive
+     * @param offset the number of results in the range skipped
+     * @param limit the maximum number of results returned
+     * @return the game results of the page
+     * @throws IOException if an I/O error occurs
+     */
+    default List<GameResult> getCreatedBetween(ZonedDateTime from, ZonedDateTime to, int offset, int limit)
+            throws IOException {
+        Queries.checkPage(offset, limit);
+        try (var results = stream()) {
+            return results.filter(result -> !result.getCreated().isBefore(from) && result.getCreated().isBefore(to))
+                    .sorted(Comparator.comparing(result -> result.getCreated().toInstant()))
+                    .skip(offset)
+                    .limit(limit)
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Computes the statistics of the game results of a player.
+     *
+     * @param playerName the name of the player
+     * @return the statistics of the player
+     * @throws IOException if an I/O error occurs
+     */
+    default PlayerStats getPlayerStats(String playerName) throws IOException {
+        var games = 0;
+        var solvedGames = 0;
+        var totalSteps = 0L;
+        var totalDuration = Duration.ZERO;
+        GameResult best = null;
+        try (var results = stream()) {
+            for (var iterator = results.iterator(); iterator.hasNext(); ) {
+                var result = iterator.next();
+                if (!result.getPlayerName().equals(playerName)) {
+                    continue;
+                }
+                games++;
+                if (result.isSolved()) {
+                    solvedGames++;
+                    totalSteps += result.getSteps();
+                    totalDuration = totalDuration.plus(result.getDuration());
+                    if (best == null || Leaderboard.ORDER.compare(result, best) < 0) {
+                        best = result;
+                    }
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new PlayerStats(playerName, games, solvedGames, Optional.ofNullable(best),
+                solvedGames == 0 ? 0 : (double) totalSteps / solvedGames,
+                solvedGames == 0 ? Duration.ZERO : totalDuration.dividedBy(solvedGames));
+    }
+
+    /**
+     * Computes a percentile of the durations of the solved games, using the
+     * nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 exclusive and 100 inclusive
+     * @return the percentile of the durations, or an empty {@code Optional}
+     * if no game has been solved
+     * @throws IOException if an I/O error occurs
+     */
+    default Optional<Duration> getDurationPercentile(double percentile) throws IOException {
+        Queries.checkPercentile(percentile);
+        var durations = solvedValues(result -> result.getDuration().toNanos());
+        return durations.length == 0
+                ? Optional.empty()
+                : Optional.of(Duration.ofNanos(durations[Queries.rank(percentile, durations.length)]));
+    }
+
+    /**
+     * Computes a percentile of the number of steps of the solved games, using
+     * the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 exclusive and 100 inclusive
+     * @return the percentile of the number of steps, or an empty
+     * {@code OptionalInt} if no game has been solved
+     * @throws IOException if an I/O error occurs
+     */
+    default OptionalInt getStepsPercentile(double percentile) throws IOException {
+        Queries.checkPercentile(percentile);
+        var steps = solvedValues(GameResult::getSteps);
+        return steps.length == 0
+                ? OptionalInt.empty()
+                : OptionalInt.of((int) steps[Queries.rank(percentile, steps.length)]);
+    }
+
+    private long[] solvedValues(ToLongFunction<GameResult> value) throws IOException {
+        try (var results = stream()) {
+            var values = results.filter(GameResult::isSolved).mapToLong(value).toArray();
+            Arrays.sort(values);
+            return values;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 }
@@ -0,0 +1,242 @@
+package result;
+
+import model.BoardDefinition;
+import model.CompiledBoard;
+import model.Direction;
+import model.Moves;
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Verifies game results by replaying their moves on the board of their
+ * level. The moves are decoded from {@link GameResult#getMoves()} one by one
+ * and replayed on the primitive tables of the {@link CompiledBoard}, so no
+ * states or lists are created, and a result is verified in a few nanoseconds
+ * per move.
+ *
+ * <p>The verdicts are used both by {@link ValidatingGameResultManager}, which
+ * rejects invalid results when they are added, and by
+ * {@link #audit(Stream)}, which checks existing archives.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public class GameResultValidator {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+    private static final int[] ROW_CHANGES;
+    private static final int[] COL_CHANGES;
+
+    static {
+        var directions = Direction.values();
+        ROW_CHANGES = new int[directions.length];
+        COL_CHANGES = new int[directions.length];
+        for (var direction : directions) {
+            ROW_CHANGES[direction.ordinal()] = direction.getRowChange();
+            COL_CHANGES[direction.ordinal()] = direction.getColChange();
+        }
+    }
+
+    /**
+     * The outcome of the verification of a game result.
+     */
+    public enum Verdict {
+        /**
+         * The moves are legal and, if the result is solved, reach the goal.
+         */
+        VALID,
+        /**
+         * The result has been recorded without its moves.
+         */
+        MISSING_MOVES,
+        /**
+         * The level of the result is unknown.
+         */
+        UNKNOWN_LEVEL,
+        /**
+         * The number of bytes of the moves does not match the number of
+         * steps.
+         */
+        LENGTH_MISMATCH,
+        /**
+         * One of the moves steps off the board or onto a blocked cell.
+         */
+        ILLEGAL_MOVE,
+        /**
+         * The result is solved, but the moves do not end at the goal.
+         */
+        GOAL_NOT_REACHED
+    }
+
+    /**
+     * An invalid game result found by {@link #audit(Stream)}.
+     *
+     * @param index the index of the result in the archive
+     * @param result the game result
+     * @param verdict the reason why the result is invalid
+     */
+    public record Finding(long index, GameResult result, Verdict verdict) {
+    }
+
+    private record Level(CompiledBoard board, int startRow, int startCol) {
+    }
+
+    private final Level defaultLevel;
+    private final Map<String, Level> levels = new HashMap<>();
+
+    /**
+     * Creates a {@code GameResultValidator} object for the levels shipped
+     * with the game.
+     */
+    public GameResultValidator() {
+        this(BoardDefinition.getLevels());
+    }
+
+    /**
+     * Creates a {@code GameResultValidator} object for the levels specified.
+     * Results without a level are verified on the first level.
+     *
+     * @param definitions the levels, which are identified by their names
+     */
+    public GameResultValidator(List<BoardDefinition> definitions) {
+        if (definitions.isEmpty()) {
+            throw new IllegalArgumentException("No levels");
+        }
+        for (var definition : definitions) {
+            levels.putIfAbsent(definition.name(),
+                    new Level(definition.compile(), definition.start().row(), definition.start().col()));
+        }
+        defaultLevel = levels.get(definitions.get(0).name());
+    }
+
+    /**
+     * Verifies a game result.
+     *
+     * @param result the game result
+     * @return the verdict
+     */
+    public Verdict validate(GameResult result) {
+        var moves = result.getMoves();
+        if (moves == null) {
+            return Verdict.MISSING_MOVES;
+        }
+        var level = result.getLevel() == null ? defaultLevel : levels.get(result.getLevel());
+        if (level == null) {
+            return Verdict.UNKNOWN_LEVEL;
+        }
+        var steps = result.getSteps();
+        if (steps < 0 || moves.length != Moves.getEncodedLength(steps)) {
+            return Verdict.LENGTH_MISMATCH;
+        }
+        var board = level.board();
+        var rows = board.getRows();
+        var cols = board.getCols();
+        var row = level.startRow();
+        var col = level.startCol();
+        var active = 1;
+        for (var i = 0; i < steps; i++) {
+            var direction = Moves.get(moves, i);
+            row += ROW_CHANGES[direction];
+            col += COL_CHANGES[direction];
+            if (row < 0 || row >= rows || col < 0 || col >= cols || board.isBlockedCell(active, row * cols + col)) {
+                return Verdict.ILLEGAL_MOVE;
+            }
+            active = 3 - active;
+        }
+        var goal = board.getGoal();
+        if (result.isSolved() && (row != goal.row() || col != goal.col())) {
+            return Verdict.GOAL_NOT_REACHED;
+        }
+        return Verdict.VALID;
+    }
+
+    /**
+     * Verifies game results in bulk. Large lists are verified in parallel.
+     *
+     * @param results the game results
+     * @return the verdicts, in the order of the results
+     */
+    public Verdict[] validate(List<GameResult> results) {
+        var verdicts = new Verdict[results.size()];
+        var indexes = IntStream.range(0, verdicts.length);
+        if (verdicts.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> verdicts[i] = validate(results.get(i)));
+        return verdicts;
+    }
+
+    /**
+     * Verifies the game results of an archive. The results are consumed one
+     * by one, so archives of any size can be audited if the stream reads them
+     * lazily, like {@link GameResultManager#stream()} does.
+     *
+     * @param results the game results, in the order of the archive
+     * @param invalid receives the results that are not {@link Verdict#VALID}
+     * @return the number of results with each verdict
+     */
+    public Map<Verdict, Long> audit(Stream<GameResult> results, Consumer<Finding> invalid) {
+        var counts = new EnumMap<Verdict, Long>(Verdict.class);
+        var index = 0L;
+        for (var iterator = results.iterator(); iterator.hasNext(); index++) {
+            var result = iterator.next();
+            var verdict = validate(result);
+            counts.merge(verdict, 1L, Long::sum);
+            if (verdict != Verdict.VALID) {
+                invalid.accept(new Finding(index, result, verdict));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Verifies the game results of an archive and returns the invalid ones.
+     *
+     * @param results the game results, in the order of the archive
+     * @return the results that are not {@link Verdict#VALID}
+     */
+    public List<Finding> audit(Stream<GameResult> results) {
+        var findings = new ArrayList<Finding>();
+        audit(results, findings::add);
+        return findings;
+    }
+
+    /**
+     * Audits archives of game results, i.e., JSON arrays like
+     * {@code results.json} or JSON Lines files like {@code results.jsonl}, and
+     * prints the invalid results and the number of results with each verdict.
+     *
+     * @param args the paths of the archives
+     * @throws IOException if an archive cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: GameResultValidator <results.json|results.jsonl>...");
+            System.exit(2);
+        }
+        var validator = new GameResultValidator();
+        for (var arg : args) {
+            var path = Path.of(arg);
+            Map<Verdict, Long> counts;
+            var start = System.nanoTime();
+            try (var results = JacksonHelper.streamList(Files.newInputStream(path), GameResult.class)) {
+                counts = validator.audit(results, finding -> System.out.printf("%s #%d: %s %s%n", path,
+                        finding.index(), finding.verdict(), finding.result()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            System.out.printf("%s: %s in %d ms%n", path, counts, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
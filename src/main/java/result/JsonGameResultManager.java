@@ -3,17 +3,23 @@ package result;
 import lombok.NonNull;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import util.JacksonHelper;
 
 /**
- * Manages game results by storing them in a JSON file.
+ * Manages game results by storing them in a JSON file. The results are
+ * streamed from and to the file one by one, so they are never kept in memory
+ * all at once, except by {@link #getAll()}.
  */
 public class JsonGameResultManager implements GameResultManager {
     private final Path filePath;
+    private final boolean indent;
 
     /**
      * Creates a {@code JsonGameResultManager} object with the specified file path.
@@ -21,24 +27,59 @@ public class JsonGameResultManager implements GameResultManager {
      * @param filePath the path to the JSON file where game results are stored
      */
     public JsonGameResultManager(@NonNull Path filePath) {
+        this(filePath, true);
+    }
+
+    /**
+     * Creates a {@code JsonGameResultManager} object with the specified file
+     * path and output format.
+     *
+     * @param filePath the path to the JSON file where game results are stored
+     * @param indent whether the JSON file is indented, compact files are
+     *               smaller and faster to write
+     */
+    public JsonGameResultManager(@NonNull Path filePath, boolean indent) {
         this.filePath = filePath;
+        this.indent = indent;
     }
 
     /**
-     * Adds a new game result to the JSON file.
+     * Adds a new game result to the JSON file. The results are copied to a
+     * temporary file together with the new one, which then replaces the JSON
+     * file atomically. Results are added one at a time within the process,
+     * but processes sharing the file can lose each other's results, which
+     * {@link ConcurrentGameResultManager} prevents.
      *
      * @param result the game result to add
-     * @return a list of all game results including the newly added result
+     * @return a list of all game results including the newly added result,
+     * i.e., the results written to the file
      * @throws IOException if an I/O error occurs
      */
     @Override
-    public List<GameResult> add(@NonNull GameResult result) throws IOException {
-        var results = getAll();
-        results.add(result);
-        try (var out = Files.newOutputStream(filePath)) {
-            JacksonHelper.writeList(out, results);
+    public synchronized List<GameResult> add(@NonNull GameResult result) throws IOException {
+        var temporary = Files.createTempFile(filePath.toAbsolutePath().getParent(),
+                filePath.getFileName().toString(), ".tmp");
+        var written = new ArrayList<GameResult>();
+        try {
+            try (var stream = Files.newOutputStream(temporary);
+                 var out = JacksonHelper.newListWriter(stream, indent)) {
+                try (var results = stream()) {
+                    for (var iterator = results.iterator(); iterator.hasNext(); ) {
+                        var next = iterator.next();
+                        out.write(next);
+                        written.add(next);
+                    }
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                out.write(result);
+                written.add(result);
+            }
+            Files.move(temporary, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
         }
-        return results;
+        return written;
     }
 
     /**
@@ -56,4 +97,18 @@ public class JsonGameResultManager implements GameResultManager {
             return JacksonHelper.readList(in, GameResult.class);
         }
     }
+
+    /**
+     * Streams the game results from the JSON file one by one.
+     *
+     * @return a stream of all game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        if (!Files.exists(filePath)) {
+            return Stream.empty();
+        }
+        return JacksonHelper.streamList(Files.newInputStream(filePath), GameResult.class);
+    }
 }
@@ -0,0 +1,469 @@
+package result;
+
+import lombok.NonNull;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Manages game results by appending them to a JSON Lines file, i.e., a file
+ * that contains one JSON object per line. Adding a result writes a single
+ * line to the end of the file, thus it takes constant time irrespective of
+ * the number of results stored.
+ *
+ * <p>The file is synced to the storage device in batches: after the number
+ * of results specified has been added, and by a background task that runs
+ * at the interval specified, so a result is synced at most one interval
+ * after it has been added, and when the manager is closed. Results added
+ * since the last sync can be lost if the system crashes.
+ *
+ * <p>The best results are kept on a {@link Leaderboard}, which is saved to
+ * an index file next to the JSON Lines file whenever the file is synced. The
+ * index records the length of the file it covers, so when the file is opened,
+ * only the results appended after that are read. All results are read only
+ * when they are first requested.
+ *
+ * <p>When the file is opened, a partially written last line, which is left
+ * behind by a crash, is truncated, and lines that cannot be parsed are
+ * skipped. The background task then compacts the file, i.e., rewrites it
+ * atomically without the skipped lines, or the manager does so when it is
+ * closed.
+ *
+ * <p>The file must not be modified by others while it is open, and the
+ * manager must be closed, which stops its background task.
+ */
+public final class JsonLinesGameResultManager implements GameResultManager, Closeable {
+
+    /**
+     * The default number of results after which the file is synced.
+     */
+    public static final int DEFAULT_SYNC_BATCH_SIZE = 64;
+
+    /**
+     * The default interval of the background task that syncs the file.
+     */
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * The number of results on the leaderboard, {@link #getBest(int)} reads
+     * all results for larger limits.
+     */
+    public static final int LEADERBOARD_CAPACITY = 100;
+
+    private static final byte NEWLINE = '\n';
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final ScheduledExecutorService MAINTENANCE = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                var thread = new Thread(runnable, "game-result-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Path filePath;
+    private final Path indexPath;
+    private final int syncBatchSize;
+    private final ScheduledFuture<?> maintenance;
+    private Leaderboard leaderboard;
+    private List<GameResult> results;
+    private FileChannel channel;
+    private long validLength;
+    private int count;
+    private int unsyncedResults;
+    private boolean indexChanged;
+    private long skippedBytes;
+
+    /**
+     * Creates a {@code JsonLinesGameResultManager} object with the specified
+     * file path and the default sync policy. The file is created if it does
+     * not exist.
+     *
+     * @param filePath the path to the JSON Lines file where game results are
+     *                 stored
+     * @throws IOException if an I/O error occurs
+     */
+    public JsonLinesGameResultManager(@NonNull Path filePath) throws IOException {
+        this(filePath, DEFAULT_SYNC_BATCH_SIZE, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Creates a {@code JsonLinesGameResultManager} object with the specified
+     * file path and sync policy. The file is created if it does not exist.
+     *
+     * @param filePath the path to the JSON Lines file where game results are
+     *                 stored
+     * @param syncBatchSize the number of results after which the file is
+     *                      synced, 1 syncs every result
+     * @param syncInterval the interval of the background task, which syncs
+     *                     the file and compacts it if necessary, the default
+     *                     interval is used if it is not positive
+     * @throws IOException if an I/O error occurs
+     */
+    public JsonLinesGameResultManager(@NonNull Path filePath, int syncBatchSize, @NonNull Duration syncInterval)
+            throws IOException {
+        if (syncBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid sync batch size: " + syncBatchSize);
+        }
+        this.filePath = filePath;
+        this.indexPath = filePath.resolveSibling(filePath.getFileName() + ".best");
+        this.syncBatchSize = syncBatchSize;
+        channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        var interval = (syncInterval.isNegative() || syncInterval.isZero() ? DEFAULT_SYNC_INTERVAL : syncInterval)
+                .toNanos();
+        maintenance = MAINTENANCE.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Appends a new game result to the JSON Lines file.
+     *
+     * @param result the game result to add
+     * @return a snapshot of all game results including the newly added
+     * result, which reads the results from the file when it is first
+     * accessed
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized List<GameResult> add(@NonNull GameResult result) throws IOException {
+        ensureOpen();
+        var json = JacksonHelper.writeValueAsBytes(result);
+        var line = ByteBuffer.allocate(json.length + 1).put(json).put(NEWLINE).flip();
+        while (line.hasRemaining()) {
+            channel.write(line);
+        }
+        validLength = channel.position();
+        if (results != null) {
+            results.add(result);
+        }
+        count++;
+        indexChanged |= leaderboard.add(result);
+        unsyncedResults++;
+        if (unsyncedResults >= syncBatchSize) {
+            sync();
+        }
+        return new LazyResultList(this, this::loadResults, count);
+    }
+
+    /**
+     * Retrieves all game results.
+     *
+     * @return a list of all game results
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized List<GameResult> getAll() throws IOException {
+        return new ArrayList<>(loadResults());
+    }
+
+    /**
+     * Retrieves the best solved game results from the leaderboard, without
+     * reading the JSON Lines file if the limit is not greater than
+     * {@link #LEADERBOARD_CAPACITY}.
+     *
+     * @param limit the maximum number of results returned
+     * @return the best solved game results in the order of
+     * {@link Leaderboard#ORDER}
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized List<GameResult> getBest(int limit) throws IOException {
+        if (limit <= LEADERBOARD_CAPACITY) {
+            return leaderboard.getBest(limit);
+        }
+        return GameResultManager.super.getBest(limit);
+    }
+
+    /**
+     * Forces the results added since the last sync to the storage device and
+     * saves the leaderboard if it has changed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void sync() throws IOException {
+        ensureOpen();
+        if (unsyncedResults > 0) {
+            channel.force(false);
+            unsyncedResults = 0;
+        }
+        if (indexChanged) {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Rewrites the JSON Lines file so that it contains exactly one line per
+     * game result. The new content is written to a temporary file first,
+     * which then replaces the file atomically.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public synchronized void compact() throws IOException {
+        ensureOpen();
+        var temporary = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        var written = new int[1];
+        try (var out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+            var end = validLength;
+            scan(0, result -> {
+                try {
+                    buffer.write(JacksonHelper.writeValueAsBytes(result));
+                    buffer.write(NEWLINE);
+                    if (buffer.size() >= BUFFER_SIZE) {
+                        writeFully(out, buffer);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                written[0]++;
+            });
+            validLength = end;
+            count = written[0];
+            writeFully(out, buffer);
+            out.force(true);
+            skippedBytes = 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // The offsets of the index become invalid, so the index is removed until it is rewritten.
+        Files.deleteIfExists(indexPath);
+        channel.close();
+        Files.move(temporary, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        validLength = channel.size();
+        channel.position(validLength);
+        unsyncedResults = 0;
+        writeIndex();
+        Logger.info("Compacted {} game results in {}", written[0], filePath);
+    }
+
+    /**
+     * Stops the background task, compacts the JSON Lines file if it contains
+     * invalid lines, and syncs and closes it.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        maintenance.cancel(false);
+        try {
+            if (skippedBytes > 0) {
+                compact();
+            }
+            sync();
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Syncs the results added since the last sync and compacts the file if
+     * it contains invalid lines. Runs on the background thread.
+     */
+    private synchronized void maintain() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (unsyncedResults > 0) {
+                sync();
+            }
+            if (skippedBytes > 0) {
+                compact();
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Failed to sync or compact {}", filePath);
+        }
+    }
+
+    /**
+     * Restores the leaderboard from the index and brings it up to date with
+     * the end of the file, or reads the whole file if there is no valid
+     * index.
+     */
+    private void recover() throws IOException {
+        var index = readIndex();
+        var from = 0L;
+        if (index != null) {
+            leaderboard = new Leaderboard(LEADERBOARD_CAPACITY);
+            index.best().forEach(leaderboard::add);
+            from = index.length();
+            count = index.count();
+        } else {
+            leaderboard = new Leaderboard(LEADERBOARD_CAPACITY);
+            results = new ArrayList<>();
+            indexChanged = true;
+        }
+        skippedBytes = scan(from, result -> {
+            count++;
+            indexChanged |= leaderboard.add(result);
+            if (results != null) {
+                results.add(result);
+            }
+        });
+        if (validLength < channel.size()) {
+            Logger.warn("Truncating a partially written record of {} bytes at the end of {}",
+                    channel.size() - validLength, filePath);
+            channel.truncate(validLength);
+            channel.force(false);
+        }
+        channel.position(validLength);
+        // The invalid lines are left for the background task, since compacting a large file would delay opening it.
+        if (indexChanged || validLength != from) {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Parses the complete lines of the file from the offset specified, which
+     * must be the start of a line, and returns the number of bytes of the
+     * lines skipped. The end of the last complete line is stored in
+     * {@code validLength}.
+     */
+    private long scan(long from, Consumer<GameResult> consumer) throws IOException {
+        var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        var line = new ByteArrayOutputStream();
+        var position = from;
+        var skippedBytes = 0L;
+        for (var offset = from; channel.read(buffer, offset) != -1; offset += buffer.position(), buffer.clear()) {
+            var bytes = buffer.array();
+            var start = 0;
+            for (var i = 0; i < buffer.position(); i++) {
+                if (bytes[i] != NEWLINE) {
+                    continue;
+                }
+                line.write(bytes, start, i - start);
+                if (!parse(line, position, consumer)) {
+                    skippedBytes += line.size() + 1;
+                }
+                position += line.size() + 1;
+                line.reset();
+                start = i + 1;
+            }
+            line.write(bytes, start, buffer.position() - start);
+        }
+        validLength = position;
+        return skippedBytes;
+    }
+
+    private boolean parse(ByteArrayOutputStream line, long position, Consumer<GameResult> consumer) {
+        var bytes = line.toByteArray();
+        if (bytes.length == 0) {
+            return false;
+        }
+        try {
+            consumer.accept(JacksonHelper.readValue(bytes, 0, bytes.length, GameResult.class));
+            return true;
+        } catch (IOException e) {
+            Logger.warn("Skipping invalid record at offset {} of {}", position, filePath);
+            return false;
+        }
+    }
+
+    private List<GameResult> loadResults() throws IOException {
+        ensureOpen();
+        if (results == null) {
+            var loaded = new ArrayList<GameResult>();
+            var end = validLength;
+            scan(0, loaded::add);
+            validLength = end;
+            results = loaded;
+            count = loaded.size();
+        }
+        return results;
+    }
+
+    /**
+     * Reads the index, or returns {@code null} if it is missing or does not
+     * match the file.
+     */
+    private Index readIndex() throws IOException {
+        if (!Files.exists(indexPath)) {
+            return null;
+        }
+        try {
+            var bytes = Files.readAllBytes(indexPath);
+            var index = JacksonHelper.readValue(bytes, 0, bytes.length, Index.class);
+            if (index.count() != null && index.capacity() == LEADERBOARD_CAPACITY
+                    && isLineBoundary(index.length())) {
+                return index;
+            }
+        } catch (IOException e) {
+            Logger.warn("Failed to read the index {}", indexPath);
+        }
+        Logger.info("Rebuilding the index {}", indexPath);
+        return null;
+    }
+
+    private boolean isLineBoundary(long offset) throws IOException {
+        if (offset == 0) {
+            return true;
+        }
+        if (offset < 0 || offset > channel.size()) {
+            return false;
+        }
+        var last = ByteBuffer.allocate(1);
+        return channel.read(last, offset - 1) == 1 && last.get(0) == NEWLINE;
+    }
+
+    private void writeIndex() throws IOException {
+        var index = new Index(validLength, count, LEADERBOARD_CAPACITY, leaderboard.getBest(LEADERBOARD_CAPACITY));
+        var temporary = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        Files.write(temporary, JacksonHelper.writeValueAsBytes(index));
+        Files.move(temporary, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        indexChanged = false;
+    }
+
+    private static void writeFully(FileChannel out, ByteArrayOutputStream buffer) throws IOException {
+        var bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        buffer.reset();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("The game result manager is closed");
+        }
+    }
+
+    /**
+     * The content of the index file.
+     *
+     * @param length the length of the JSON Lines file covered by the index
+     * @param count the number of results in the part of the file covered
+     * @param capacity the capacity of the leaderboard
+     * @param best the results on the leaderboard
+     */
+    private record Index(long length, Integer count, int capacity, List<GameResult> best) {
+    }
+}
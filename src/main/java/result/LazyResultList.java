@@ -0,0 +1,82 @@
+package result;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * An unmodifiable list of game results that are loaded when the list is
+ * first accessed, so that a caller that ignores the list does not pay for
+ * reading the results.
+ *
+ * <p>Game results are only ever appended, so a list created with the number
+ * of results at the time is a snapshot: it holds only that many of the
+ * results loaded, even if more results have been added by the time it is
+ * first accessed. A list created without a size is live, it holds all the
+ * results at the time it is first accessed.
+ */
+class LazyResultList extends AbstractList<GameResult> {
+
+    /**
+     * Loads the game results of a {@code LazyResultList}.
+     */
+    interface Loader {
+        List<GameResult> load() throws IOException;
+    }
+
+    private final Object lock;
+    private final Loader loader;
+    private final int size;
+    private List<GameResult> results;
+
+    /**
+     * Creates a live {@code LazyResultList} object.
+     *
+     * @param lock the object guarding the list returned by the loader
+     * @param loader the loader of the game results
+     */
+    LazyResultList(Object lock, Loader loader) {
+        this(lock, loader, -1);
+    }
+
+    /**
+     * Creates a {@code LazyResultList} object that is a snapshot of the first
+     * game results loaded.
+     *
+     * @param lock the object guarding the list returned by the loader
+     * @param loader the loader of the game results
+     * @param size the number of game results in the snapshot
+     */
+    LazyResultList(Object lock, Loader loader, int size) {
+        this.lock = lock;
+        this.loader = loader;
+        this.size = size;
+    }
+
+    @Override
+    public GameResult get(int index) {
+        synchronized (lock) {
+            return loaded().get(index);
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (lock) {
+            return results == null && size >= 0 ? size : loaded().size();
+        }
+    }
+
+    private List<GameResult> loaded() {
+        if (results == null) {
+            try {
+                var loaded = loader.load();
+                results = size < 0 ? loaded : List.copyOf(loaded.subList(0, Math.min(size, loaded.size())));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,92 @@
+package result;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The best solved game results, kept in order while results are added one by
+ * one. Only a bounded number of results are stored, thus adding a result and
+ * retrieving the best ones take time independent of the number of results
+ * added.
+ */
+public class Leaderboard {
+
+    /**
+     * The order of the results on the leaderboard: fewer steps first, then
+     * shorter duration, then earlier creation.
+     */
+    public static final Comparator<GameResult> ORDER = Comparator.comparingInt(GameResult::getSteps)
+            .thenComparing(GameResult::getDuration)
+            .thenComparing(result -> result.getCreated().toInstant());
+
+    private final int capacity;
+    private final List<GameResult> best;
+
+    /**
+     * Creates an empty {@code Leaderboard} object.
+     *
+     * @param capacity the maximum number of results kept
+     */
+    public Leaderboard(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.best = new ArrayList<>();
+    }
+
+    /**
+     * {@return the maximum number of results kept}
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds a game result to the leaderboard if it is solved and it is among
+     * the best ones. Of equal results, the one added first is ranked higher.
+     *
+     * @param result the game result to add
+     * @return whether the leaderboard has changed
+     */
+    public boolean add(@NonNull GameResult result) {
+        if (!result.isSolved()) {
+            return false;
+        }
+        var low = 0;
+        var high = best.size();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (ORDER.compare(best.get(middle), result) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low >= capacity) {
+            return false;
+        }
+        best.add(low, result);
+        if (best.size() > capacity) {
+            best.remove(capacity);
+        }
+        return true;
+    }
+
+    /**
+     * {@return the best results in order, at most as many as specified}
+     *
+     * @param limit the maximum number of results returned, which must not be
+     *              greater than the capacity
+     */
+    public List<GameResult> getBest(int limit) {
+        if (limit < 0 || limit > capacity) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        return Collections.unmodifiableList(new ArrayList<>(best.subList(0, Math.min(limit, best.size()))));
+    }
+}
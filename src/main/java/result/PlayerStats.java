@@ -0,0 +1,21 @@
+package result;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Statistics of the game results of a player. The averages are computed
+ * over the solved games and they are zero if the player has not solved any
+ * game.
+ *
+ * @param playerName the name of the player
+ * @param games the number of games played
+ * @param solvedGames the number of games solved
+ * @param best the best solved game result of the player in the order of
+ *             {@link Leaderboard#ORDER}
+ * @param averageSteps the average number of steps of the solved games
+ * @param averageDuration the average duration of the solved games
+ */
+public record PlayerStats(String playerName, int games, int solvedGames, Optional<GameResult> best,
+                          double averageSteps, Duration averageDuration) {
+}
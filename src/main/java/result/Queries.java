@@ -0,0 +1,35 @@
+package result;
+
+/**
+ * Validation and helpers shared by the implementations of the queries of
+ * {@link GameResultManager}.
+ */
+final class Queries {
+
+    private Queries() {
+    }
+
+    /**
+     * Returns the index of the element at the percentile specified in a
+     * sorted array, using the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 exclusive and 100 inclusive
+     * @param count the number of elements, which must be positive
+     * @return the index of the element at the percentile
+     */
+    static int rank(double percentile, int count) {
+        return Math.max(0, (int) Math.ceil(percentile / 100 * count) - 1);
+    }
+
+    static void checkPercentile(double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+    }
+
+    static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException(String.format("Invalid page: offset %d, limit %d", offset, limit));
+        }
+    }
+}
@@ -0,0 +1,452 @@
+package result;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * In-memory indexes of the rows of a {@link ColumnarGameResultManager},
+ * which are updated incrementally as rows are added:
+ * <ul>
+ *     <li>the rows in order of creation time, together with their creation
+ *     times, which are searched for time ranges,</li>
+ *     <li>aggregates and the best row of every player,</li>
+ *     <li>the sorted steps and durations of the solved rows, which answer
+ *     percentiles.</li>
+ * </ul>
+ *
+ * <p>The indexes can be saved to a snapshot file by {@link #write(Path)}. An
+ * index read from a snapshot by {@link #read(Path)} maps the sorted arrays of
+ * the file into memory instead of reading them, so it is ready in time
+ * proportional to the number of players. The rows added after that are kept
+ * in memory, and queries merge them with the mapped arrays by binary
+ * search.
+ *
+ * <p>A snapshot starts with a header of four little-endian {@code long}s:
+ * a magic number, the number of rows, the number of players and the number
+ * of solved rows. Then come the creation times in order as {@code long}s,
+ * the sorted steps and durations of the solved rows as {@code long}s, the
+ * rows in order of creation time as {@code int}s, and the aggregates of the
+ * players.
+ */
+final class ResultIndex {
+
+    private static final long MAGIC = 0x3158444953455247L;
+    private static final int HEADER_BYTES = 4 * Long.BYTES;
+    private static final int PLAYER_BYTES = 4 * Integer.BYTES + 4 * Long.BYTES;
+    private static final LongBuffer NO_LONGS = LongBuffer.allocate(0);
+    private static final IntBuffer NO_INTS = IntBuffer.allocate(0);
+
+    private final LongBuffer baseCreatedKeys;
+    private final IntBuffer baseRowsByCreated;
+    private int[] rowsByCreated = new int[16];
+    private long[] createdKeys = new long[16];
+    private int size;
+
+    private int players;
+    private int[] games = new int[16];
+    private int[] solvedGames = new int[16];
+    private long[] totalSteps = new long[16];
+    private long[] totalDurations = new long[16];
+    private int[] bestRows = new int[16];
+    private int[] bestSteps = new int[16];
+    private long[] bestDurations = new long[16];
+    private long[] bestCreated = new long[16];
+
+    private final SortedLongs steps;
+    private final SortedLongs durations;
+
+    /**
+     * Creates an empty index.
+     */
+    ResultIndex() {
+        this(NO_LONGS, NO_INTS, NO_LONGS, NO_LONGS);
+    }
+
+    private ResultIndex(LongBuffer baseCreatedKeys, IntBuffer baseRowsByCreated, LongBuffer baseSteps,
+                        LongBuffer baseDurations) {
+        this.baseCreatedKeys = baseCreatedKeys;
+        this.baseRowsByCreated = baseRowsByCreated;
+        this.steps = new SortedLongs(baseSteps);
+        this.durations = new SortedLongs(baseDurations);
+    }
+
+    /**
+     * Reads an index from a snapshot file.
+     *
+     * @param path the path of the snapshot
+     * @return the index
+     * @throws IOException if the snapshot cannot be read or is not valid
+     */
+    static ResultIndex read(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var length = channel.size();
+            if (length < HEADER_BYTES) {
+                throw new IOException("Invalid index: " + path);
+            }
+            var header = map(channel, 0, HEADER_BYTES);
+            var rows = header.getLong(Long.BYTES);
+            var players = header.getLong(2 * Long.BYTES);
+            var solved = header.getLong(3 * Long.BYTES);
+            if (header.getLong(0) != MAGIC || rows < 0 || rows > Integer.MAX_VALUE / Long.BYTES
+                    || players < 0 || players > Integer.MAX_VALUE / PLAYER_BYTES || solved < 0 || solved > rows
+                    || length != HEADER_BYTES + rows * (Long.BYTES + Integer.BYTES) + solved * 2 * Long.BYTES
+                    + players * PLAYER_BYTES) {
+                throw new IOException("Invalid index: " + path);
+            }
+            var offset = (long) HEADER_BYTES;
+            var createdKeys = map(channel, offset, rows * Long.BYTES).asLongBuffer();
+            offset += rows * Long.BYTES;
+            var steps = map(channel, offset, solved * Long.BYTES).asLongBuffer();
+            offset += solved * Long.BYTES;
+            var durations = map(channel, offset, solved * Long.BYTES).asLongBuffer();
+            offset += solved * Long.BYTES;
+            var rowsByCreated = map(channel, offset, rows * Integer.BYTES).asIntBuffer();
+            offset += rows * Integer.BYTES;
+            var index = new ResultIndex(createdKeys, rowsByCreated, steps, durations);
+            var aggregates = map(channel, offset, players * PLAYER_BYTES);
+            for (var player = 0; player < players; player++) {
+                index.ensurePlayer(player);
+                index.games[player] = aggregates.getInt();
+                index.solvedGames[player] = aggregates.getInt();
+                index.bestRows[player] = aggregates.getInt();
+                index.bestSteps[player] = aggregates.getInt();
+                index.totalSteps[player] = aggregates.getLong();
+                index.totalDurations[player] = aggregates.getLong();
+                index.bestDurations[player] = aggregates.getLong();
+                index.bestCreated[player] = aggregates.getLong();
+            }
+            return index;
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the index to a snapshot file, which is replaced atomically.
+     *
+     * @param path the path of the snapshot
+     * @throws IOException if an I/O error occurs
+     */
+    void write(Path path) throws IOException {
+        steps.merge();
+        durations.merge();
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var out = new Output(FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.putLong(MAGIC).putLong(getRows()).putLong(players).putLong(steps.size());
+            var base = baseCreatedKeys.limit();
+            for (int i = 0, j = 0; i < base || j < size; ) {
+                out.putLong(i < base && (j == size || baseCreatedKeys.get(i) <= createdKeys[j])
+                        ? baseCreatedKeys.get(i++) : createdKeys[j++]);
+            }
+            steps.write(out);
+            durations.write(out);
+            for (int i = 0, j = 0; i < base || j < size; ) {
+                out.putInt(i < base && (j == size || baseCreatedKeys.get(i) <= createdKeys[j])
+                        ? baseRowsByCreated.get(i++) : rowsByCreated[j++]);
+            }
+            for (var player = 0; player < players; player++) {
+                out.putInt(games[player]).putInt(solvedGames[player]).putInt(bestRows[player])
+                        .putInt(bestSteps[player]).putLong(totalSteps[player]).putLong(totalDurations[player])
+                        .putLong(bestDurations[player]).putLong(bestCreated[player]);
+            }
+            out.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * {@return the number of rows indexed, i.e., the rows from 0 to this
+     * number exclusive}
+     */
+    int getRows() {
+        return baseCreatedKeys.limit() + size;
+    }
+
+    /**
+     * {@return the number of rows added since the index was read from a
+     * snapshot}
+     */
+    int getAddedRows() {
+        return size;
+    }
+
+    /**
+     * Adds a row to the indexes. Rows must be added in increasing order.
+     */
+    void add(int row, int player, boolean solved, int steps, long durationNanos, long createdNanos) {
+        addByCreated(row, createdNanos);
+        ensurePlayer(player);
+        games[player]++;
+        if (!solved) {
+            return;
+        }
+        // Same order as Leaderboard.ORDER, earlier rows win ties.
+        if (solvedGames[player] == 0 || steps < bestSteps[player]
+                || steps == bestSteps[player] && (durationNanos < bestDurations[player]
+                || durationNanos == bestDurations[player] && createdNanos < bestCreated[player])) {
+            bestRows[player] = row;
+            bestSteps[player] = steps;
+            bestDurations[player] = durationNanos;
+            bestCreated[player] = createdNanos;
+        }
+        solvedGames[player]++;
+        totalSteps[player] += steps;
+        totalDurations[player] += durationNanos;
+        this.steps.add(steps);
+        this.durations.add(durationNanos);
+    }
+
+    private void ensurePlayer(int player) {
+        if (player >= games.length) {
+            var length = Math.max(player + 1, games.length * 2);
+            games = Arrays.copyOf(games, length);
+            solvedGames = Arrays.copyOf(solvedGames, length);
+            totalSteps = Arrays.copyOf(totalSteps, length);
+            totalDurations = Arrays.copyOf(totalDurations, length);
+            bestRows = Arrays.copyOf(bestRows, length);
+            bestSteps = Arrays.copyOf(bestSteps, length);
+            bestDurations = Arrays.copyOf(bestDurations, length);
+            bestCreated = Arrays.copyOf(bestCreated, length);
+        }
+        players = Math.max(players, player + 1);
+    }
+
+    private void addByCreated(int row, long createdNanos) {
+        if (size == rowsByCreated.length) {
+            rowsByCreated = Arrays.copyOf(rowsByCreated, size * 2);
+            createdKeys = Arrays.copyOf(createdKeys, size * 2);
+        }
+        // Results are usually added in order of creation, so the insertion point is usually the end.
+        var index = size == 0 || createdKeys[size - 1] <= createdNanos ? size
+                : upperBound(LongBuffer.wrap(createdKeys, 0, size), createdNanos);
+        System.arraycopy(rowsByCreated, index, rowsByCreated, index + 1, size - index);
+        System.arraycopy(createdKeys, index, createdKeys, index + 1, size - index);
+        rowsByCreated[index] = row;
+        createdKeys[index] = createdNanos;
+        size++;
+    }
+
+    /**
+     * Returns the index of the first row created at or after the time
+     * specified in the order of creation.
+     */
+    int lowerBound(long createdNanos) {
+        return lowerBound(baseCreatedKeys, createdNanos)
+                + lowerBound(LongBuffer.wrap(createdKeys, 0, size), createdNanos);
+    }
+
+    /**
+     * Returns the row at the index specified in the order of creation. The
+     * rows of the snapshot precede the rows added later that were created at
+     * the same time.
+     */
+    int getRowByCreated(int index) {
+        var selected = select(baseCreatedKeys, LongBuffer.wrap(createdKeys, 0, size), index);
+        return selected >= 0 ? baseRowsByCreated.get(selected) : rowsByCreated[~selected];
+    }
+
+    int getGames(int player) {
+        return player < games.length ? games[player] : 0;
+    }
+
+    int getSolvedGames(int player) {
+        return player < games.length ? solvedGames[player] : 0;
+    }
+
+    long getTotalSteps(int player) {
+        return totalSteps[player];
+    }
+
+    long getTotalDurationNanos(int player) {
+        return totalDurations[player];
+    }
+
+    int getBestRow(int player) {
+        return bestRows[player];
+    }
+
+    SortedLongs getSteps() {
+        return steps;
+    }
+
+    SortedLongs getDurations() {
+        return durations;
+    }
+
+    private static int lowerBound(LongBuffer keys, long key) {
+        var low = 0;
+        var high = keys.limit();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (keys.get(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(LongBuffer keys, long key) {
+        var low = 0;
+        var high = keys.limit();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (keys.get(middle) <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Selects the value at the index specified in the merge of two sorted
+     * sequences, in which the values of the first sequence precede the equal
+     * values of the second one.
+     *
+     * @return the index of the value in the first sequence, or the bitwise
+     * complement of its index in the second sequence
+     */
+    private static int select(LongBuffer first, LongBuffer second, int index) {
+        // The number of values of the first sequence that precede the index in the merge.
+        var low = 0;
+        var high = first.limit();
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (middle + lowerBound(second, first.get(middle)) < index) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low < first.limit() && low + lowerBound(second, first.get(low)) == index) {
+            return low;
+        }
+        return ~(index - low);
+    }
+
+    /**
+     * A sorted multiset of {@code long} values, which extends the sorted
+     * values of a snapshot. Values added are collected in a pending buffer,
+     * which is sorted and merged into the sorted values added when the values
+     * are queried.
+     */
+    static final class SortedLongs {
+
+        private final LongBuffer base;
+        private long[] sorted = new long[16];
+        private int sortedSize;
+        private long[] pending = new long[16];
+        private int pendingSize;
+
+        private SortedLongs(LongBuffer base) {
+            this.base = base;
+        }
+
+        void add(long value) {
+            if (pendingSize == pending.length) {
+                pending = Arrays.copyOf(pending, pendingSize * 2);
+            }
+            pending[pendingSize++] = value;
+        }
+
+        int size() {
+            return base.limit() + sortedSize + pendingSize;
+        }
+
+        /**
+         * {@return the value at the index specified in ascending order}
+         */
+        long get(int index) {
+            merge();
+            var selected = select(base, LongBuffer.wrap(sorted, 0, sortedSize), index);
+            return selected >= 0 ? base.get(selected) : sorted[~selected];
+        }
+
+        private void merge() {
+            if (pendingSize == 0) {
+                return;
+            }
+            Arrays.sort(pending, 0, pendingSize);
+            var total = sortedSize + pendingSize;
+            if (total > sorted.length) {
+                sorted = Arrays.copyOf(sorted, Math.max(total, sorted.length * 2));
+            }
+            var i = sortedSize - 1;
+            var j = pendingSize - 1;
+            for (var k = total - 1; j >= 0; k--) {
+                sorted[k] = i >= 0 && sorted[i] > pending[j] ? sorted[i--] : pending[j--];
+            }
+            sortedSize = total;
+            pendingSize = 0;
+        }
+
+        private void write(Output out) throws IOException {
+            var size = base.limit();
+            for (int i = 0, j = 0; i < size || j < sortedSize; ) {
+                out.putLong(i < size && (j == sortedSize || base.get(i) <= sorted[j]) ? base.get(i++) : sorted[j++]);
+            }
+        }
+    }
+
+    /**
+     * Writes little-endian values to a file channel through a buffer.
+     */
+    private static final class Output implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        Output putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+            return this;
+        }
+
+        Output putLong(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(value);
+            return this;
+        }
+
+        void force() throws IOException {
+            flush();
+            channel.force(false);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
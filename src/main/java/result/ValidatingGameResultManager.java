@@ -0,0 +1,112 @@
+package result;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Stream;
+
+/**
+ * Verifies the game results added to another {@link GameResultManager} by a
+ * {@link GameResultValidator}, and rejects the invalid ones. Queries are
+ * answered by the other manager.
+ */
+public class ValidatingGameResultManager implements GameResultManager, Closeable {
+
+    private final GameResultManager delegate;
+    private final GameResultValidator validator;
+    private final boolean requireMoves;
+
+    /**
+     * Creates a {@code ValidatingGameResultManager} object.
+     *
+     * @param delegate the game result manager to which valid results are
+     *                 added
+     * @param validator the validator
+     * @param requireMoves whether results without moves are rejected,
+     *                     otherwise they are added without verification
+     */
+    public ValidatingGameResultManager(@NonNull GameResultManager delegate, @NonNull GameResultValidator validator,
+                                       boolean requireMoves) {
+        this.delegate = delegate;
+        this.validator = validator;
+        this.requireMoves = requireMoves;
+    }
+
+    /**
+     * Verifies a game result and adds it to the other manager if it is
+     * valid.
+     *
+     * @param result the game result to add
+     * @return the list of all game results returned by the other manager
+     * @throws IllegalArgumentException if the result is invalid
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public List<GameResult> add(@NonNull GameResult result) throws IOException {
+        var verdict = validator.validate(result);
+        if (verdict != GameResultValidator.Verdict.VALID
+                && (requireMoves || verdict != GameResultValidator.Verdict.MISSING_MOVES)) {
+            throw new IllegalArgumentException("Invalid game result (" + verdict + "): " + result);
+        }
+        return delegate.add(result);
+    }
+
+    @Override
+    public List<GameResult> getAll() throws IOException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Stream<GameResult> stream() throws IOException {
+        return delegate.stream();
+    }
+
+    @Override
+    public List<GameResult> getBest(int limit) throws IOException {
+        return delegate.getBest(limit);
+    }
+
+    @Override
+    public List<GameResult> getPage(int offset, int limit) throws IOException {
+        return delegate.getPage(offset, limit);
+    }
+
+    @Override
+    public List<GameResult> getCreatedBetween(ZonedDateTime from, ZonedDateTime to, int offset, int limit)
+            throws IOException {
+        return delegate.getCreatedBetween(from, to, offset, limit);
+    }
+
+    @Override
+    public PlayerStats getPlayerStats(String playerName) throws IOException {
+        return delegate.getPlayerStats(playerName);
+    }
+
+    @Override
+    public Optional<Duration> getDurationPercentile(double percentile) throws IOException {
+        return delegate.getDurationPercentile(percentile);
+    }
+
+    @Override
+    public OptionalInt getStepsPercentile(double percentile) throws IOException {
+        return delegate.getStepsPercentile(percentile);
+    }
+
+    /**
+     * Closes the other manager if it is {@link Closeable}.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
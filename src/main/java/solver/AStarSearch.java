@@ -0,0 +1,159 @@
+package solver;
+
+import model.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An A* search for the soldier puzzle. The heuristic is the Manhattan
+ * distance of the soldier from the goal with a parity correction: since every
+ * move changes the sum of the coordinates of the soldier by one, the length of
+ * every path to the goal has the same parity as the Manhattan distance, thus
+ * the phase of the cannons at the last move is determined by the state. If
+ * the goal is covered by a laser in that phase, the goal is unreachable from
+ * the state and the state is pruned. The heuristic is consistent, therefore
+ * the solution found is a shortest one.
+ *
+ * <p>The open list is a binary heap of encoded states keyed by the estimated
+ * cost of the solution through them. Ties are broken in favour of the states
+ * farther from the initial state, which are closer to the goal.
+ */
+public class AStarSearch extends PackedSolver {
+
+    private static final int UNREACHABLE = -1;
+
+    private int[] cost;
+    private int[] parent;
+    private byte[] moves;
+    private long[] closed;
+    private long[] keys = new long[64];
+    private int[] values = new int[64];
+    private int size;
+    private int goalRow;
+    private int goalCol;
+    private int goalCell;
+
+    @Override
+    void allocate(int states) {
+        cost = new int[states];
+        parent = new int[states];
+        moves = new byte[states];
+        closed = new long[(states + 63) >>> 6];
+    }
+
+    @Override
+    Optional<List<Direction>> search(int start, int goalCell) {
+        this.goalCell = goalCell;
+        goalRow = goalCell / cols;
+        goalCol = goalCell - goalRow * cols;
+        Arrays.fill(cost, 0, rows * cols * 2, -1);
+        Arrays.fill(closed, 0L);
+        size = 0;
+        var estimate = estimate(start);
+        if (estimate == UNREACHABLE) {
+            return Optional.empty();
+        }
+        cost[start] = 0;
+        push(estimate, 0, start);
+        while (size > 0) {
+            var state = pop();
+            if (isSet(closed, state)) {
+                continue;
+            }
+            set(closed, state);
+            var cell = state >>> 1;
+            var phase = state & 1;
+            if (cell == goalCell) {
+                return Optional.of(pathTo(start, state, parent, moves));
+            }
+            expandedStates++;
+            var row = cell / cols;
+            var col = cell - row * cols;
+            var newCost = cost[state] + 1;
+            for (var i = 0; i < DIRECTIONS.length; i++) {
+                var newCell = neighbor(row, col, i);
+                if (newCell < 0 || isBlocked(phase, newCell)) {
+                    continue;
+                }
+                var next = encode(newCell, phase ^ 1);
+                if (isSet(closed, next) || (cost[next] >= 0 && cost[next] <= newCost)) {
+                    continue;
+                }
+                estimate = estimate(next);
+                if (estimate == UNREACHABLE) {
+                    continue;
+                }
+                cost[next] = newCost;
+                parent[next] = state;
+                moves[next] = (byte) i;
+                push(newCost + estimate, newCost, next);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * {@return a lower bound of the number of moves needed to reach the goal
+     * from the state specified, or {@link #UNREACHABLE}}
+     *
+     * @param state an encoded state
+     */
+    private int estimate(int state) {
+        var cell = state >>> 1;
+        var row = cell / cols;
+        var col = cell - row * cols;
+        var distance = Math.abs(goalRow - row) + Math.abs(goalCol - col);
+        if (distance == 0) {
+            return 0;
+        }
+        var lastPhase = (state & 1) ^ ((distance - 1) & 1);
+        return isBlocked(lastPhase, goalCell) ? UNREACHABLE : distance;
+    }
+
+    private void push(int estimate, int cost, int state) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        var key = (long) estimate << 32 | (Integer.MAX_VALUE - cost);
+        var i = size++;
+        while (i > 0) {
+            var up = (i - 1) >>> 1;
+            if (keys[up] <= key) {
+                break;
+            }
+            keys[i] = keys[up];
+            values[i] = values[up];
+            i = up;
+        }
+        keys[i] = key;
+        values[i] = state;
+    }
+
+    private int pop() {
+        var top = values[0];
+        var key = keys[--size];
+        var value = values[size];
+        var i = 0;
+        while (true) {
+            var child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[i] = keys[child];
+            values[i] = values[child];
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return top;
+    }
+}
@@ -0,0 +1,294 @@
+package solver;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import model.CompiledBoard;
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.Position;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves many start states read from JSON Lines on a fixed number of worker
+ * threads. Every line of the input is a {@link Problem}, and a
+ * {@link Result} is written for every non-blank line, in the order of the
+ * input.
+ *
+ * <p>Only a bounded number of problems are read ahead of the results
+ * written, so inputs of any size are solved in constant memory. Each worker
+ * thread has its own {@link PackedBreadthFirstSearch}, whose buffers are
+ * reused for all the problems it solves, and the problems with the same goal
+ * and black blocks share a single {@link CompiledBoard}.
+ *
+ * <p>Problems whose soldier or black blocks are outside the board, or whose
+ * board has more than {@value #MAX_CELLS} cells, are answered with an error,
+ * like the lines that are not valid problems.
+ */
+public class BatchSolver implements AutoCloseable {
+
+    /**
+     * The maximum number of cells of the board of a problem.
+     */
+    public static final int MAX_CELLS = 1 << 20;
+
+    private static final int PENDING_PER_THREAD = 4;
+    private static final int MAX_BOARDS = 1 << 12;
+    private static final byte NEWLINE = '\n';
+
+    /**
+     * A start state to be solved, which is interpreted like the arguments of
+     * {@link model.SoldierState#SoldierState(Position...)}, that is, the
+     * board has the cannons of the puzzle.
+     *
+     * @param id an optional identifier, which is copied to the result
+     * @param soldier the position of the soldier
+     * @param goal the position of the goal
+     * @param blocks the positions of the black blocks
+     * @param active the active cannons, 1 if {@code null}
+     */
+    public record Problem(String id, Position soldier, Position goal, List<Position> blocks, Integer active) {
+    }
+
+    /**
+     * The outcome of solving a line of the input. Either {@code error} is
+     * set, or the fields describing the search.
+     *
+     * @param line the number of the line of the input, starting from 1
+     * @param id the identifier of the problem
+     * @param solved whether a solution has been found
+     * @param path the moves of a shortest solution if there is one
+     * @param length the number of moves of a shortest solution if there is
+     *               one
+     * @param expandedStates the number of states expanded by the search
+     * @param nanos the time of the search in nanoseconds
+     * @param error the reason why the line could not be solved
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(long line, String id, Boolean solved, List<Direction> path, Integer length,
+                         Integer expandedStates, Long nanos, String error) {
+    }
+
+    private record BoardKey(Position goal, List<Position> blocks) {
+    }
+
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final ThreadLocal<PackedBreadthFirstSearch> solvers =
+            ThreadLocal.withInitial(PackedBreadthFirstSearch::new);
+    private final Map<BoardKey, CompiledBoard> boards = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a {@code BatchSolver} object with the number of worker threads
+     * specified.
+     *
+     * @param threads the number of worker threads
+     */
+    public BatchSolver(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid number of threads: " + threads);
+        }
+        var count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "batch-solver-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        maxPending = threads * PENDING_PER_THREAD;
+    }
+
+    /**
+     * Solves the problems read from the input and writes the results to the
+     * output, one JSON object per line. The streams are not closed.
+     *
+     * @param in the input stream of the problems in JSON Lines format
+     * @param out the output stream of the results
+     * @return the number of results written
+     * @throws IOException if an I/O error occurs
+     */
+    public long solve(InputStream in, OutputStream out) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        var writer = new BufferedOutputStream(out, 1 << 16);
+        Queue<Future<Result>> pending = new ArrayDeque<>();
+        var written = 0L;
+        try {
+            var number = 0L;
+            for (String text; (text = reader.readLine()) != null; ) {
+                number++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                var line = number;
+                var json = text.getBytes(StandardCharsets.UTF_8);
+                pending.add(executor.submit(() -> solve(line, json)));
+                if (pending.size() >= maxPending) {
+                    write(writer, pending.remove());
+                    written++;
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(writer, pending.remove());
+                written++;
+            }
+            writer.flush();
+        } catch (IOException | RuntimeException e) {
+            // The results written before the failure are not lost in the buffer.
+            try {
+                writer.flush();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+        }
+        Logger.debug("Solved {} problems", written);
+        return written;
+    }
+
+    /**
+     * Solves a problem on the calling thread.
+     *
+     * @param line the number of the line of the problem
+     * @param problem the problem
+     * @return the result
+     */
+    public Result solve(long line, Problem problem) {
+        ImmutableSoldierState initial;
+        try {
+            if (problem.soldier() == null || problem.goal() == null) {
+                throw new IllegalArgumentException("The soldier and the goal must be specified");
+            }
+            if (problem.blocks() != null && problem.blocks().stream().anyMatch(Objects::isNull)) {
+                throw new IllegalArgumentException("Invalid black block: null");
+            }
+            checkSize(problem.goal());
+            checkInside("soldier", problem.soldier(), problem.goal());
+            var blocks = problem.blocks() == null ? List.<Position>of() : List.copyOf(problem.blocks());
+            blocks.forEach(block -> checkInside("black block", block, problem.goal()));
+            var board = getBoard(new BoardKey(problem.goal(), blocks));
+            var active = problem.active() == null ? 1 : problem.active();
+            initial = new ImmutableSoldierState(board, problem.soldier().row(), problem.soldier().col(), active);
+        } catch (IllegalArgumentException e) {
+            return new Result(line, problem.id(), null, null, null, null, null, e.getMessage());
+        }
+        var solver = solvers.get();
+        var start = System.nanoTime();
+        var solution = solver.solve(initial);
+        var nanos = System.nanoTime() - start;
+        return new Result(line, problem.id(), solution.isPresent(), solution.orElse(null),
+                solution.map(List::size).orElse(null), solver.getExpandedStates(), nanos, null);
+    }
+
+    private Result solve(long line, byte[] json) {
+        Problem problem;
+        try {
+            problem = JacksonHelper.readValue(json, 0, json.length, Problem.class);
+        } catch (IOException e) {
+            var message = e instanceof JsonProcessingException exception ? exception.getOriginalMessage()
+                    : e.getMessage();
+            return new Result(line, null, null, null, null, null, null, "Invalid problem: " + message);
+        }
+        if (problem == null) {
+            return new Result(line, null, null, null, null, null, null, "Invalid problem: null");
+        }
+        return solve(line, problem);
+    }
+
+    private static void checkSize(Position goal) {
+        if (goal.row() < 0 || goal.col() < 0) {
+            throw new IllegalArgumentException("Invalid goal: " + goal);
+        }
+        if ((goal.row() + 1L) * (goal.col() + 1L) > MAX_CELLS) {
+            throw new IllegalArgumentException("The board has more than " + MAX_CELLS + " cells: "
+                    + (goal.row() + 1L) + "x" + (goal.col() + 1L));
+        }
+    }
+
+    private static void checkInside(String name, Position position, Position goal) {
+        if (position.row() < 0 || position.row() > goal.row() || position.col() < 0 || position.col() > goal.col()) {
+            throw new IllegalArgumentException("Invalid " + name + ", outside the board: " + position);
+        }
+    }
+
+    private CompiledBoard getBoard(BoardKey key) {
+        var board = boards.get(key);
+        if (board == null) {
+            if (boards.size() >= MAX_BOARDS) {
+                boards.clear();
+            }
+            board = boards.computeIfAbsent(key, k -> ImmutableSoldierState.compile(k.goal(),
+                    k.blocks().toArray(Position[]::new)));
+        }
+        return board;
+    }
+
+    private static void write(OutputStream out, Future<Result> future) throws IOException {
+        Result result;
+        try {
+            result = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        out.write(JacksonHelper.writeValueAsBytes(result));
+        out.write(NEWLINE);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Solves the problems of a JSON Lines file and writes the results as JSON
+     * Lines.
+     *
+     * <p>Arguments: the input file, the output file, and optionally the
+     * number of threads, {@code -} stands for the standard input and output.
+     *
+     * @param args the command line arguments
+     * @throws IOException if an I/O error occurs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchSolver <input.jsonl|-> <output.jsonl|-> [threads]");
+            System.exit(2);
+        }
+        var threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        try (var solver = new BatchSolver(threads);
+             var in = args[0].equals("-") ? System.in : Files.newInputStream(Path.of(args[0]));
+             var out = args[1].equals("-") ? System.out : Files.newOutputStream(Path.of(args[1]))) {
+            var start = System.nanoTime();
+            var count = solver.solve(in, out);
+            System.err.printf("Solved %d problems in %d ms%n", count, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package solver;
+
+import model.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A bidirectional breadth-first search for the soldier puzzle. A forward
+ * search from the initial state and a backward search from the solved states
+ * are expanded a whole level at a time, always the one with the smaller
+ * frontier. When a level produces states already reached by the other
+ * search, the shortest of the paths through them is a shortest solution.
+ *
+ * <p>The backward search generates the predecessors of a state: the soldier
+ * can step onto a cell in a phase if the cell is not blocked in the other
+ * phase, since the cannons switch with every move.
+ */
+public class BidirectionalSearch extends PackedSolver {
+
+    private int[] forwardDistance;
+    private int[] parent;
+    private byte[] moves;
+    private int[] forwardQueue;
+    private int[] backwardDistance;
+    private int[] successor;
+    private byte[] successorMoves;
+    private int[] backwardQueue;
+
+    private int forwardHead;
+    private int forwardTail;
+    private int backwardHead;
+    private int backwardTail;
+    private int bestLength;
+    private int meeting;
+
+    @Override
+    void allocate(int states) {
+        forwardDistance = new int[states];
+        parent = new int[states];
+        moves = new byte[states];
+        forwardQueue = new int[states];
+        backwardDistance = new int[states];
+        successor = new int[states];
+        successorMoves = new byte[states];
+        backwardQueue = new int[states];
+    }
+
+    @Override
+    Optional<List<Direction>> search(int start, int goalCell) {
+        if (start >>> 1 == goalCell) {
+            return Optional.of(List.of());
+        }
+        var states = rows * cols * 2;
+        Arrays.fill(forwardDistance, 0, states, -1);
+        Arrays.fill(backwardDistance, 0, states, -1);
+        forwardHead = 0;
+        forwardTail = 0;
+        backwardHead = 0;
+        backwardTail = 0;
+        bestLength = Integer.MAX_VALUE;
+        meeting = -1;
+        forwardDistance[start] = 0;
+        forwardQueue[forwardTail++] = start;
+        for (var phase = 0; phase < 2; phase++) {
+            if (!isBlocked(phase ^ 1, goalCell)) {
+                var goal = encode(goalCell, phase);
+                backwardDistance[goal] = 0;
+                backwardQueue[backwardTail++] = goal;
+            }
+        }
+        while (forwardHead < forwardTail && backwardHead < backwardTail) {
+            if (forwardTail - forwardHead <= backwardTail - backwardHead) {
+                expandForward();
+            } else {
+                expandBackward();
+            }
+            if (meeting >= 0) {
+                return Optional.of(pathThrough(start, meeting));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void expandForward() {
+        var levelEnd = forwardTail;
+        while (forwardHead < levelEnd) {
+            var state = forwardQueue[forwardHead++];
+            expandedStates++;
+            var cell = state >>> 1;
+            var phase = state & 1;
+            var row = cell / cols;
+            var col = cell - row * cols;
+            for (var i = 0; i < DIRECTIONS.length; i++) {
+                var newCell = neighbor(row, col, i);
+                if (newCell < 0 || isBlocked(phase, newCell)) {
+                    continue;
+                }
+                var next = encode(newCell, phase ^ 1);
+                if (forwardDistance[next] >= 0) {
+                    continue;
+                }
+                forwardDistance[next] = forwardDistance[state] + 1;
+                parent[next] = state;
+                moves[next] = (byte) i;
+                forwardQueue[forwardTail++] = next;
+                checkMeeting(next);
+            }
+        }
+    }
+
+    private void expandBackward() {
+        var levelEnd = backwardTail;
+        while (backwardHead < levelEnd) {
+            var state = backwardQueue[backwardHead++];
+            expandedStates++;
+            var cell = state >>> 1;
+            var previousPhase = (state & 1) ^ 1;
+            if (isBlocked(previousPhase, cell)) {
+                continue;
+            }
+            var row = cell / cols;
+            var col = cell - row * cols;
+            for (var i = 0; i < DIRECTIONS.length; i++) {
+                var previousCell = neighbor(row, col, opposite(i));
+                if (previousCell < 0) {
+                    continue;
+                }
+                var previous = encode(previousCell, previousPhase);
+                if (backwardDistance[previous] >= 0) {
+                    continue;
+                }
+                backwardDistance[previous] = backwardDistance[state] + 1;
+                successor[previous] = state;
+                successorMoves[previous] = (byte) i;
+                backwardQueue[backwardTail++] = previous;
+                checkMeeting(previous);
+            }
+        }
+    }
+
+    private void checkMeeting(int state) {
+        if (forwardDistance[state] >= 0 && backwardDistance[state] >= 0) {
+            var length = forwardDistance[state] + backwardDistance[state];
+            if (length < bestLength) {
+                bestLength = length;
+                meeting = state;
+            }
+        }
+    }
+
+    private List<Direction> pathThrough(int start, int state) {
+        var path = pathTo(start, state, parent, moves);
+        for (; backwardDistance[state] > 0; state = successor[state]) {
+            path.add(DIRECTIONS[successorMoves[state]]);
+        }
+        return path;
+    }
+
+    private static int opposite(int direction) {
+        return (direction + 2) % DIRECTIONS.length;
+    }
+}
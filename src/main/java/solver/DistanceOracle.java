@@ -0,0 +1,241 @@
+package solver;
+
+import model.CompiledBoard;
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.StateKey;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact number of moves needed to solve the puzzle from every state of a
+ * board. The table is computed by a single breadth-first search from the
+ * solved states that follows the moves backwards, and it is stored in a
+ * {@code short[]} indexed by the encoded states. Both the number of remaining
+ * moves and the best next move are then answered in constant time.
+ *
+ * <p>The distance oracles requested by {@link #of} are cached, the cache
+ * holds at most {@value #MAX_CACHED} boards, it is cleared when it is full.
+ *
+ * <p>Instances are immutable and can be shared between threads.
+ */
+public final class DistanceOracle {
+
+    /**
+     * The number of remaining moves of the states from which the goal cannot
+     * be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * The maximum number of distance oracles cached.
+     */
+    public static final int MAX_CACHED = 64;
+
+    private static final int MAGIC = 0x534F4C44;
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Map<CompiledBoard, CompletableFuture<DistanceOracle>> CACHE = new ConcurrentHashMap<>();
+
+    private final CompiledBoard board;
+    private final short[] distances;
+
+    private DistanceOracle(CompiledBoard board, short[] distances) {
+        this.board = board;
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the distance oracle of a board.
+     *
+     * @param board the compiled board
+     * @return the distance oracle of the board
+     * @throws IllegalArgumentException if the board has states farther from
+     * the goal than {@link Short#MAX_VALUE} moves
+     */
+    public static DistanceOracle build(CompiledBoard board) {
+        var rows = board.getRows();
+        var cols = board.getCols();
+        var distances = new short[rows * cols * 2];
+        Arrays.fill(distances, (short) UNREACHABLE);
+        var queue = new int[distances.length];
+        var tail = 0;
+        var goal = board.getGoal();
+        var goalCell = board.getCell(goal.row(), goal.col());
+        for (var phase = 0; phase < 2; phase++) {
+            distances[goalCell << 1 | phase] = 0;
+            queue[tail++] = goalCell << 1 | phase;
+        }
+        for (var head = 0; head < tail; head++) {
+            var state = queue[head];
+            var cell = state >>> 1;
+            var previousPhase = (state & 1) ^ 1;
+            if (board.isBlockedCell(previousPhase + 1, cell)) {
+                continue;
+            }
+            var distance = distances[state] + 1;
+            if (distance > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("The board is too large for a distance oracle");
+            }
+            var row = cell / cols;
+            var col = cell - row * cols;
+            for (var direction : DIRECTIONS) {
+                var previousRow = row - direction.getRowChange();
+                var previousCol = col - direction.getColChange();
+                if (previousRow < 0 || previousRow >= rows || previousCol < 0 || previousCol >= cols) {
+                    continue;
+                }
+                var previous = board.getCell(previousRow, previousCol) << 1 | previousPhase;
+                if (distances[previous] == UNREACHABLE) {
+                    distances[previous] = (short) distance;
+                    queue[tail++] = previous;
+                }
+            }
+        }
+        return new DistanceOracle(board, distances);
+    }
+
+    /**
+     * Returns the distance oracle of a board, which is computed in the common
+     * pool when it is first requested for an equal board. A failed
+     * computation is not cached, so it is retried when the distance oracle of
+     * the board is requested again.
+     *
+     * @param board the compiled board
+     * @return a future completed with the distance oracle of the board
+     */
+    public static CompletableFuture<DistanceOracle> of(CompiledBoard board) {
+        var cached = CACHE.get(board);
+        if (cached != null) {
+            return cached;
+        }
+        if (CACHE.size() >= MAX_CACHED) {
+            CACHE.clear();
+        }
+        var future = new CompletableFuture<DistanceOracle>();
+        cached = CACHE.putIfAbsent(board, future);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                future.complete(build(board));
+            } catch (RuntimeException | Error e) {
+                CACHE.remove(board, future);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * {@return the board of the distance oracle}
+     */
+    public CompiledBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * {@return the number of moves of a shortest solution from the state
+     * specified, or {@link #UNREACHABLE}}
+     *
+     * @param key the key of a state of the board
+     */
+    public int getRemainingMoves(StateKey key) {
+        if (key.row() >= board.getRows() || key.col() >= board.getCols()) {
+            return UNREACHABLE;
+        }
+        return distances[board.getCell(key.row(), key.col()) << 1 | (key.active() - 1)];
+    }
+
+    /**
+     * {@return the number of moves of a shortest solution from the state
+     * specified, or {@link #UNREACHABLE}}
+     *
+     * @param state a state of the board
+     * @throws IllegalArgumentException if the state is on a different board
+     */
+    public int getRemainingMoves(ImmutableSoldierState state) {
+        if (state.board() != board && !state.board().equals(board)) {
+            throw new IllegalArgumentException("The state is on a different board");
+        }
+        return getRemainingMoves(state.key());
+    }
+
+    /**
+     * {@return the first move of a shortest solution from the state specified,
+     * or an empty {@code Optional} if the state is solved or the goal cannot
+     * be reached}
+     *
+     * @param state a state of the board
+     * @throws IllegalArgumentException if the state is on a different board
+     */
+    public Optional<Direction> getBestMove(ImmutableSoldierState state) {
+        var remaining = getRemainingMoves(state);
+        if (remaining <= 0) {
+            return Optional.empty();
+        }
+        for (var direction : DIRECTIONS) {
+            if (state.isLegalMove(direction) && getRemainingMoves(state.apply(direction)) == remaining - 1) {
+                return Optional.of(direction);
+            }
+        }
+        throw new IllegalStateException("No move decreases the remaining moves from " + state.key());
+    }
+
+    /**
+     * Writes the table of the distance oracle.
+     *
+     * @param out the output stream to which the table will be written
+     * @throws IOException if any I/O error occurs
+     */
+    public void write(OutputStream out) throws IOException {
+        var data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(board.getRows());
+        data.writeInt(board.getCols());
+        data.writeInt(checksum(board));
+        var bytes = ByteBuffer.allocate(distances.length * Short.BYTES);
+        bytes.asShortBuffer().put(distances);
+        data.write(bytes.array());
+        data.flush();
+    }
+
+    /**
+     * Reads the table of a distance oracle written by {@link #write}.
+     *
+     * @param in the input stream from which the table will be read
+     * @param board the board of the distance oracle
+     * @return the distance oracle read
+     * @throws IOException if any I/O error occurs or the table does not
+     * belong to the board
+     */
+    public static DistanceOracle read(InputStream in, CompiledBoard board) throws IOException {
+        var data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a distance oracle");
+        }
+        if (data.readInt() != board.getRows() || data.readInt() != board.getCols()
+                || data.readInt() != checksum(board)) {
+            throw new IOException("The distance oracle does not belong to the board");
+        }
+        var distances = new short[board.getRows() * board.getCols() * 2];
+        var bytes = new byte[distances.length * Short.BYTES];
+        data.readFully(bytes);
+        ByteBuffer.wrap(bytes).asShortBuffer().get(distances);
+        return new DistanceOracle(board, distances);
+    }
+
+    private static int checksum(CompiledBoard board) {
+        return 31 * Arrays.hashCode(board.getBlockedCells(1)) + Arrays.hashCode(board.getBlockedCells(2));
+    }
+}
@@ -0,0 +1,207 @@
+package solver;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import model.BoardDefinition;
+import model.ImmutableSoldierState;
+import model.Position;
+import org.tinylog.Logger;
+import util.JacksonHelper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates random levels of the soldier puzzle. Every candidate board gets
+ * random cannons and black blocks, and it is verified by a
+ * {@link DistanceOracle}, which yields the number of moves of a shortest
+ * solution. The candidates that cannot be solved or whose shortest solution
+ * is out of the requested range are dropped.
+ *
+ * <p>The candidates are generated in parallel. The candidate number
+ * {@code i} depends only on the seed and on {@code i}, so the levels
+ * generated with the same settings and seed are always the same.
+ */
+public class LevelGenerator {
+
+    private static final int BATCH_SIZE = 1 << 10;
+
+    private final int rows;
+    private final int cols;
+    private final double cannonProbability;
+    private final int blocks;
+    private final int minMoves;
+    private final int maxMoves;
+
+    /**
+     * A generated level together with its difficulty. In JSON, the grades
+     * are written next to the fields of the definition, so a file of graded
+     * levels can be read by {@link BoardDefinition#read(Path)}.
+     *
+     * @param definition the definition of the level
+     * @param moves the number of moves of a shortest solution
+     * @param branching the average number of legal moves in the states of
+     *                  the shortest solution found, the goal excluded
+     */
+    public record GradedLevel(@JsonUnwrapped BoardDefinition definition, int moves, double branching) {
+    }
+
+    /**
+     * Creates a {@code LevelGenerator} object. The goal of the levels is the
+     * bottom right corner and the soldier starts from the top left corner.
+     *
+     * @param rows the number of rows of the boards
+     * @param cols the number of columns of the boards
+     * @param cannonProbability the probability that a row or a column has a
+     *                          cannon
+     * @param blocks the number of black blocks
+     * @param minMoves the minimum number of moves of a shortest solution
+     * @param maxMoves the maximum number of moves of a shortest solution
+     */
+    public LevelGenerator(int rows, int cols, double cannonProbability, int blocks, int minMoves, int maxMoves) {
+        if (rows < 1 || cols < 1 || rows * cols < 2) {
+            throw new IllegalArgumentException("Invalid size: " + rows + "x" + cols);
+        }
+        if (cannonProbability < 0 || cannonProbability > 1) {
+            throw new IllegalArgumentException("Invalid cannon probability: " + cannonProbability);
+        }
+        if (blocks < 0 || blocks > rows * cols - 2) {
+            throw new IllegalArgumentException("Invalid number of black blocks: " + blocks);
+        }
+        if (minMoves < 1 || maxMoves < minMoves) {
+            throw new IllegalArgumentException("Invalid range of moves: " + minMoves + ".." + maxMoves);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cannonProbability = cannonProbability;
+        this.blocks = blocks;
+        this.minMoves = minMoves;
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Generates levels until the number of levels specified pass the
+     * verification.
+     *
+     * @param count the number of levels
+     * @param seed the seed of the random boards
+     * @return the levels generated, in order of their candidate numbers
+     * @throws IllegalStateException if none of the first batches of candidates
+     * passes the verification, which means that the settings hardly ever yield
+     * valid levels
+     */
+    public List<GradedLevel> generate(int count, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        var levels = new ArrayList<GradedLevel>(count);
+        var attempts = 0;
+        while (levels.size() < count) {
+            if (levels.isEmpty() && attempts >= 64 * BATCH_SIZE) {
+                throw new IllegalStateException("No valid level found in " + attempts + " attempts");
+            }
+            var first = attempts;
+            levels.addAll(IntStream.range(first, first + BATCH_SIZE)
+                    .parallel()
+                    .mapToObj(i -> generateCandidate(seed, i))
+                    .flatMap(Optional::stream)
+                    .toList());
+            attempts += BATCH_SIZE;
+        }
+        Logger.debug("Generated {} levels in {} attempts", count, attempts);
+        return List.copyOf(levels.subList(0, count));
+    }
+
+    /**
+     * Generates the candidate number specified and verifies it.
+     *
+     * @param seed the seed of the random boards
+     * @param index the number of the candidate
+     * @return the level, or an empty {@code Optional} if the candidate fails
+     * the verification
+     */
+    public Optional<GradedLevel> generateCandidate(long seed, int index) {
+        var random = new SplittableRandom(seed ^ index * 0x9E3779B97F4A7C15L);
+        var definition = new BoardDefinition(String.format("Random %dx%d #%d-%d", rows, cols, seed, index),
+                randomCannons(random, cols), randomCannons(random, rows), new Position(0, 0),
+                new Position(rows - 1, cols - 1), randomBlocks(random));
+        // Not cached, since most candidates are dropped.
+        var board = definition.compileUncached();
+        var oracle = DistanceOracle.build(board);
+        var state = new ImmutableSoldierState(board, 0, 0, 1);
+        var moves = oracle.getRemainingMoves(state);
+        if (moves < minMoves || moves > maxMoves) {
+            return Optional.empty();
+        }
+        var legalMoves = 0;
+        for (var i = 0; i < moves; i++) {
+            legalMoves += state.getLegalMoves().size();
+            state = state.apply(oracle.getBestMove(state).orElseThrow());
+        }
+        return Optional.of(new GradedLevel(definition, moves, (double) legalMoves / moves));
+    }
+
+    private List<Integer> randomCannons(SplittableRandom random, int count) {
+        var cannons = new ArrayList<Integer>(count);
+        for (var i = 0; i < count; i++) {
+            cannons.add(random.nextDouble() < cannonProbability ? 1 + random.nextInt(2) : 0);
+        }
+        return cannons;
+    }
+
+    private List<Position> randomBlocks(SplittableRandom random) {
+        var cells = new HashSet<Integer>();
+        var last = rows * cols - 1;
+        while (cells.size() < blocks) {
+            var cell = random.nextInt(rows * cols);
+            if (cell != 0 && cell != last) {
+                cells.add(cell);
+            }
+        }
+        return cells.stream().sorted().map(cell -> new Position(cell / cols, cell % cols)).toList();
+    }
+
+    /**
+     * Generates levels and writes them with their grades to a JSON file,
+     * which can be read by {@link BoardDefinition#read(Path)}.
+     *
+     * <p>Arguments: the path of the file, the number of levels, and
+     * optionally the number of rows, the number of columns, the number of
+     * black blocks, the minimum and maximum number of moves, and the seed.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LevelGenerator <file> <count> [rows cols blocks minMoves maxMoves seed]");
+            System.exit(2);
+        }
+        var path = Path.of(args[0]);
+        var count = Integer.parseInt(args[1]);
+        var rows = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+        var cols = args.length > 3 ? Integer.parseInt(args[3]) : 15;
+        var blocks = args.length > 4 ? Integer.parseInt(args[4]) : 2;
+        var minMoves = args.length > 5 ? Integer.parseInt(args[5]) : 30;
+        var maxMoves = args.length > 6 ? Integer.parseInt(args[6]) : Short.MAX_VALUE;
+        var seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+        var generator = new LevelGenerator(rows, cols, 0.6, blocks, minMoves, maxMoves);
+        var start = System.nanoTime();
+        var levels = generator.generate(count, seed);
+        var elapsed = System.nanoTime() - start;
+        try (var out = Files.newOutputStream(path)) {
+            JacksonHelper.writeList(out, levels);
+        }
+        for (var level : levels) {
+            System.out.printf("%s: %d moves, branching %.2f%n", level.definition().name(), level.moves(),
+                    level.branching());
+        }
+        System.out.printf("Generated %d levels in %d ms%n", count, elapsed / 1_000_000);
+    }
+}
@@ -1,12 +1,18 @@
 package solver;
 
-import model.Direction;
-import model.SoldierState;
-import puzzle.solver.BreadthFirstSearch;
+import model.BoardDefinition;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 public class Main {
-    public static void main(String[] args) {
-        var bfs = new BreadthFirstSearch<Direction>();
-        bfs.solveAndPrintSolution(new SoldierState());
+    public static void main(String[] args) throws IOException {
+        var levels = args.length > 0 ? BoardDefinition.read(Path.of(args[0])) : List.of(BoardDefinition.DEFAULT);
+        var solver = new PackedBreadthFirstSearch();
+        for (var level : levels) {
+            System.out.println(level.name());
+            solver.solveAndPrintSolution(level.initialState());
+        }
     }
 }
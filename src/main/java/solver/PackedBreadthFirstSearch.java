@@ -0,0 +1,73 @@
+package solver;
+
+import model.CompiledBoard;
+import model.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A breadth-first search dedicated to the soldier puzzle. A state is encoded
+ * as a single {@code int} holding the cell of the soldier and the parity of
+ * the active cannons, the visited states are kept in a {@code long[]} bitset,
+ * and the expansion of a state does not allocate any objects, since the legal
+ * moves are looked up in the tables of the {@link CompiledBoard}.
+ *
+ * <p>Moves are expanded in the order of {@link Direction#values()}, therefore
+ * the solution found is the same as the one found by the generic
+ * {@code puzzle.solver.BreadthFirstSearch}.
+ *
+ * <p>The search buffers are reused between calls of {@link #solve}, so an
+ * instance is not thread-safe.
+ */
+public class PackedBreadthFirstSearch extends PackedSolver {
+
+    private long[] visited;
+    private int[] queue;
+    private int[] parent;
+    private byte[] moves;
+
+    @Override
+    void allocate(int states) {
+        queue = new int[states];
+        parent = new int[states];
+        moves = new byte[states];
+        visited = new long[(states + 63) >>> 6];
+    }
+
+    @Override
+    Optional<List<Direction>> search(int start, int goalCell) {
+        Arrays.fill(visited, 0L);
+        var head = 0;
+        var tail = 0;
+        queue[tail++] = start;
+        set(visited, start);
+        while (head < tail) {
+            var state = queue[head++];
+            var cell = state >>> 1;
+            var phase = state & 1;
+            if (cell == goalCell) {
+                return Optional.of(pathTo(start, state, parent, moves));
+            }
+            expandedStates++;
+            var row = cell / cols;
+            var col = cell - row * cols;
+            for (var i = 0; i < DIRECTIONS.length; i++) {
+                var newCell = neighbor(row, col, i);
+                if (newCell < 0 || isBlocked(phase, newCell)) {
+                    continue;
+                }
+                var next = encode(newCell, phase ^ 1);
+                if (isSet(visited, next)) {
+                    continue;
+                }
+                set(visited, next);
+                parent[next] = state;
+                moves[next] = (byte) i;
+                queue[tail++] = next;
+            }
+        }
+        return Optional.empty();
+    }
+}
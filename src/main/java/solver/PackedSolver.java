@@ -0,0 +1,143 @@
+package solver;
+
+import model.CompiledBoard;
+import model.Direction;
+import model.ImmutableSoldierState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Base class of the solvers that encode a state as a single {@code int}. The
+ * encoding of a state is {@code cell << 1 | phase}, where {@code cell} is the
+ * number of the cell of the soldier on the {@link CompiledBoard} and
+ * {@code phase} is the active cannons minus one.
+ *
+ * <p>The compiled tables of the last board and the buffers of the subclasses
+ * are reused between calls of {@link #solve}, so instances are not
+ * thread-safe.
+ */
+abstract class PackedSolver implements Solver {
+
+    static final Direction[] DIRECTIONS = Direction.values();
+
+    int rows;
+    int cols;
+    long[][] blocked;
+    int expandedStates;
+
+    private CompiledBoard preparedBoard;
+    private int capacity;
+
+    @Override
+    public Optional<List<Direction>> solve(ImmutableSoldierState initial) {
+        var board = initial.board();
+        prepare(board);
+        expandedStates = 0;
+        if (initial.row() < 0 || initial.row() >= rows || initial.col() < 0 || initial.col() >= cols) {
+            return Optional.empty();
+        }
+        var goal = board.getGoal();
+        var start = encode(board.getCell(initial.row(), initial.col()), initial.active() - 1);
+        return search(start, board.getCell(goal.row(), goal.col()));
+    }
+
+    @Override
+    public int getExpandedStates() {
+        return expandedStates;
+    }
+
+    /**
+     * Searches for a shortest path from the start state to any state whose
+     * cell is the goal cell.
+     *
+     * @param start the encoded start state
+     * @param goalCell the number of the goal cell
+     * @return the moves of a shortest solution, or an empty {@code Optional}
+     * if there is no solution
+     */
+    abstract Optional<List<Direction>> search(int start, int goalCell);
+
+    /**
+     * Allocates the buffers of the search for the number of encoded states
+     * specified. It is called only when the board grows larger than any
+     * board searched before.
+     *
+     * @param states the number of encoded states of the board
+     */
+    abstract void allocate(int states);
+
+    private void prepare(CompiledBoard board) {
+        if (board == preparedBoard) {
+            return;
+        }
+        rows = board.getRows();
+        cols = board.getCols();
+        var states = rows * cols * 2;
+        if (states > capacity) {
+            allocate(states);
+            capacity = states;
+        }
+        blocked = new long[][] {board.getBlockedCells(1), board.getBlockedCells(2)};
+        preparedBoard = board;
+    }
+
+    /**
+     * {@return the number of the cell next to the position specified in the
+     * direction specified, or -1 if it is outside the board}
+     *
+     * @param row the row of the position
+     * @param col the column of the position
+     * @param direction the index of the direction
+     */
+    int neighbor(int row, int col, int direction) {
+        var newRow = row + DIRECTIONS[direction].getRowChange();
+        var newCol = col + DIRECTIONS[direction].getColChange();
+        if (newRow < 0 || newRow >= rows || newCol < 0 || newCol >= cols) {
+            return -1;
+        }
+        return newRow * cols + newCol;
+    }
+
+    /**
+     * {@return whether the soldier cannot step onto the cell specified in the
+     * phase specified}
+     *
+     * @param phase the active cannons minus one
+     * @param cell the number of a cell
+     */
+    boolean isBlocked(int phase, int cell) {
+        return isSet(blocked[phase], cell);
+    }
+
+    static int encode(int cell, int phase) {
+        return cell << 1 | phase;
+    }
+
+    static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * {@return the moves leading from the start state to the state specified}
+     *
+     * @param start the encoded start state
+     * @param state the encoded end state
+     * @param parent the encoded parents of the states
+     * @param moves the indexes of the moves leading to the states
+     */
+    static List<Direction> pathTo(int start, int state, int[] parent, byte[] moves) {
+        var path = new ArrayList<Direction>();
+        for (; state != start; state = parent[state]) {
+            path.add(DIRECTIONS[moves[state]]);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
@@ -0,0 +1,302 @@
+package solver;
+
+import model.Direction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A level-synchronous parallel breadth-first search for the soldier puzzle.
+ * Each level of the search is split into chunks that are expanded by the
+ * tasks of a {@link ForkJoinPool}.
+ *
+ * <p>A level is expanded in two passes. In the first pass, every chunk claims
+ * the unvisited successors of its states by lowering the claim of the
+ * successor to {@code 4 * index + direction} with a compare-and-set, where
+ * {@code index} is the index of the parent in the frontier. In the second
+ * pass, every chunk keeps the successors whose final claim belongs to it and
+ * marks them in the lock-free visited bitset. Since the chunks are contiguous
+ * ranges of the frontier, concatenating their successors yields the next
+ * frontier in the same order as the sequential {@link PackedBreadthFirstSearch}
+ * would enqueue them, so both searches return the same solution. Levels
+ * smaller than a chunk are expanded by the calling thread.
+ *
+ * <p>The number of expanded states counts whole levels, thus it can be
+ * slightly larger than the one of the sequential search.
+ */
+public class ParallelBreadthFirstSearch extends PackedSolver implements AutoCloseable {
+
+    private static final int DEFAULT_MIN_CHUNK = 1 << 10;
+    private static final int NOT_CLAIMED = Integer.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int minChunk;
+
+    private AtomicLongArray visited;
+    private AtomicIntegerArray claims;
+    private int[] parent;
+    private byte[] moves;
+    private int[] frontier;
+    private int[] nextFrontier;
+    private int[][] successors = new int[0][];
+    private int[] successorCounts = new int[0];
+
+    /**
+     * Creates a {@code ParallelBreadthFirstSearch} object that runs in the
+     * common pool.
+     */
+    public ParallelBreadthFirstSearch() {
+        this(ForkJoinPool.commonPool(), false, DEFAULT_MIN_CHUNK);
+    }
+
+    /**
+     * Creates a {@code ParallelBreadthFirstSearch} object that runs in a pool
+     * of its own, which is shut down by {@link #close()}.
+     *
+     * @param parallelism the number of threads of the pool
+     */
+    public ParallelBreadthFirstSearch(int parallelism) {
+        this(new ForkJoinPool(parallelism), true, DEFAULT_MIN_CHUNK);
+    }
+
+    /**
+     * Creates a {@code ParallelBreadthFirstSearch} object that runs in the
+     * pool specified.
+     *
+     * @param pool the pool that runs the tasks of the search
+     */
+    public ParallelBreadthFirstSearch(ForkJoinPool pool) {
+        this(pool, false, DEFAULT_MIN_CHUNK);
+    }
+
+    ParallelBreadthFirstSearch(ForkJoinPool pool, boolean ownsPool, int minChunk) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.minChunk = minChunk;
+    }
+
+    /**
+     * {@return the number of threads of the pool that runs the search}
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @Override
+    void allocate(int states) {
+        visited = new AtomicLongArray((states + 63) >>> 6);
+        claims = new AtomicIntegerArray(states);
+        parent = new int[states];
+        moves = new byte[states];
+        frontier = new int[states];
+        nextFrontier = new int[states];
+    }
+
+    @Override
+    Optional<List<Direction>> search(int start, int goalCell) {
+        var states = rows * cols * 2;
+        // The pool is invoked afterwards, which publishes the plain writes to its tasks.
+        for (var i = 0; i < (states + 63) >>> 6; i++) {
+            visited.setPlain(i, 0L);
+        }
+        for (var i = 0; i < states; i++) {
+            claims.setPlain(i, NOT_CLAIMED);
+        }
+        frontier[0] = start;
+        markVisited(start);
+        var size = 1;
+        while (size > 0) {
+            for (var i = 0; i < size; i++) {
+                if (frontier[i] >>> 1 == goalCell) {
+                    return Optional.of(pathTo(start, frontier[i], parent, moves));
+                }
+            }
+            expandedStates += size;
+            size = expandLevel(size);
+        }
+        return Optional.empty();
+    }
+
+    private int expandLevel(int size) {
+        var chunks = Math.min(pool.getParallelism() * 4, (size + minChunk - 1) / minChunk);
+        if (chunks <= 1) {
+            return expandSequentially(size);
+        }
+        if (successors.length < chunks) {
+            successors = new int[chunks][];
+            successorCounts = new int[chunks];
+        }
+        pool.invoke(new LevelTask(0, chunks, size, chunks, false));
+        pool.invoke(new LevelTask(0, chunks, size, chunks, true));
+        var next = 0;
+        for (var chunk = 0; chunk < chunks; chunk++) {
+            System.arraycopy(successors[chunk], 0, nextFrontier, next, successorCounts[chunk]);
+            next += successorCounts[chunk];
+        }
+        swapFrontiers();
+        return next;
+    }
+
+    private int expandSequentially(int size) {
+        var next = 0;
+        for (var index = 0; index < size; index++) {
+            var state = frontier[index];
+            var cell = state >>> 1;
+            var phase = state & 1;
+            var row = cell / cols;
+            var col = cell - row * cols;
+            for (var i = 0; i < DIRECTIONS.length; i++) {
+                var newCell = neighbor(row, col, i);
+                if (newCell < 0 || isBlocked(phase, newCell)) {
+                    continue;
+                }
+                var successor = encode(newCell, phase ^ 1);
+                if (isVisited(successor)) {
+                    continue;
+                }
+                markVisited(successor);
+                parent[successor] = state;
+                moves[successor] = (byte) i;
+                nextFrontier[next++] = successor;
+            }
+        }
+        swapFrontiers();
+        return next;
+    }
+
+    private void swapFrontiers() {
+        var swap = frontier;
+        frontier = nextFrontier;
+        nextFrontier = swap;
+    }
+
+    private void claim(int chunk, int size, int chunks) {
+        var from = chunkStart(chunk, size, chunks);
+        var to = chunkStart(chunk + 1, size, chunks);
+        var capacity = (to - from) * DIRECTIONS.length;
+        if (successors[chunk] == null || successors[chunk].length < capacity) {
+            successors[chunk] = new int[capacity];
+        }
+        var found = successors[chunk];
+        var count = 0;
+        for (var index = from; index < to; index++) {
+            var state = frontier[index];
+            var cell = state >>> 1;
+            var phase = state & 1;
+            var row = cell / cols;
+            var col = cell - row * cols;
+            for (var i = 0; i < DIRECTIONS.length; i++) {
+                var newCell = neighbor(row, col, i);
+                if (newCell < 0 || isBlocked(phase, newCell)) {
+                    continue;
+                }
+                var next = encode(newCell, phase ^ 1);
+                if (isVisited(next)) {
+                    continue;
+                }
+                var claim = index * DIRECTIONS.length + i;
+                while (true) {
+                    var current = claims.get(next);
+                    if (current <= claim) {
+                        break;
+                    }
+                    if (claims.compareAndSet(next, current, claim)) {
+                        found[count++] = next;
+                        break;
+                    }
+                }
+            }
+        }
+        successorCounts[chunk] = count;
+    }
+
+    private void publish(int chunk, int size, int chunks) {
+        var from = chunkStart(chunk, size, chunks);
+        var to = chunkStart(chunk + 1, size, chunks);
+        var found = successors[chunk];
+        var count = 0;
+        for (var i = 0; i < successorCounts[chunk]; i++) {
+            var next = found[i];
+            var claim = claims.getPlain(next);
+            var index = claim / DIRECTIONS.length;
+            if (index < from || index >= to) {
+                continue;
+            }
+            parent[next] = frontier[index];
+            moves[next] = (byte) (claim % DIRECTIONS.length);
+            markVisited(next);
+            found[count++] = next;
+        }
+        successorCounts[chunk] = count;
+    }
+
+    private static int chunkStart(int chunk, int size, int chunks) {
+        return (int) ((long) chunk * size / chunks);
+    }
+
+    private boolean isVisited(int state) {
+        // The bitset is modified either by the calling thread or by the publishing pass, which is separated
+        // from the claiming pass by a join.
+        return (visited.getPlain(state >>> 6) & (1L << state)) != 0;
+    }
+
+    private void markVisited(int state) {
+        var word = state >>> 6;
+        var bit = 1L << state;
+        while (true) {
+            var current = visited.get(word);
+            if ((current & bit) != 0 || visited.compareAndSet(word, current, current | bit)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Shuts down the pool of the search if it was created by this object.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private final class LevelTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int size;
+        private final int chunks;
+        private final boolean publish;
+
+        LevelTask(int from, int to, int size, int chunks, boolean publish) {
+            this.from = from;
+            this.to = to;
+            this.size = size;
+            this.chunks = chunks;
+            this.publish = publish;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                if (publish) {
+                    publish(from, size, chunks);
+                } else {
+                    claim(from, size, chunks);
+                }
+                return;
+            }
+            var middle = (from + to) >>> 1;
+            invokeAll(new LevelTask(from, middle, size, chunks, publish),
+                    new LevelTask(middle, to, size, chunks, publish));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package solver;
+
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.SoldierState;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An interface of the algorithms that search for a shortest solution of the
+ * soldier puzzle.
+ */
+public interface Solver {
+
+    /**
+     * Searches for a shortest sequence of moves that solves the puzzle.
+     *
+     * @param initial the initial state of the puzzle
+     * @return the moves of a shortest solution, or an empty {@code Optional}
+     * if the puzzle cannot be solved
+     */
+    Optional<List<Direction>> solve(ImmutableSoldierState initial);
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    int getExpandedStates();
+
+    /**
+     * Searches for a shortest sequence of moves that solves the puzzle.
+     *
+     * @param initial the initial state of the puzzle, it is not modified
+     * @return the moves of a shortest solution, or an empty {@code Optional}
+     * if the puzzle cannot be solved
+     */
+    default Optional<List<Direction>> solve(SoldierState initial) {
+        return solve(initial.getCore());
+    }
+
+    /**
+     * Solves the puzzle and prints the moves of the solution to the standard
+     * output, one move per line.
+     *
+     * @param initial the initial state of the puzzle
+     */
+    default void solveAndPrintSolution(ImmutableSoldierState initial) {
+        solve(initial).ifPresentOrElse(
+                path -> path.forEach(System.out::println),
+                () -> System.out.println("No solution found"));
+    }
+}
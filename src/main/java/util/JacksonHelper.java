@@ -1,13 +1,22 @@
 package util;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class JacksonHelper {
 
@@ -16,6 +25,9 @@ public class JacksonHelper {
             .enable(SerializationFeature.INDENT_OUTPUT)
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
 
+    private static final ObjectWriter COMPACT_WRITER = MAPPER.writer()
+            .without(SerializationFeature.INDENT_OUTPUT);
+
     /**
      * Deserializes a list of objects from JSON.
      *
@@ -39,6 +51,110 @@ public class JacksonHelper {
      * @throws IOException if any I/O error occurs
      */
     public static <T> void writeList(OutputStream out, List<T> list) throws IOException {
-        MAPPER.writeValue(out, list);
+        writeList(out, list, true);
+    }
+
+    /**
+     * Serializes a list of objects to JSON, either indented or compact.
+     *
+     * @param out the output stream to which JSON data will be written
+     * @param list the list of objects to be serialized
+     * @param indent whether the output is indented
+     * @param <T> the type of the list elements
+     * @throws IOException if any I/O error occurs
+     */
+    public static <T> void writeList(OutputStream out, List<T> list, boolean indent) throws IOException {
+        writer(indent).writeValue(out, list);
+    }
+
+    /**
+     * Deserializes the elements of a JSON array one by one, so only a single
+     * element is kept in memory at a time. A sequence of JSON values that are
+     * not enclosed in an array, e.g., JSON Lines, is also accepted.
+     * Closing the stream returned closes the input stream.
+     *
+     * @param in the input stream from which JSON data will be read
+     * @param elementClass represents the class of the elements
+     * @return a lazily populated stream of the objects deserialized from JSON,
+     * which throws {@link UncheckedIOException} if the data cannot be read
+     * @param <T> the type of the elements
+     * @throws IOException if any I/O error occurs
+     */
+    public static <T> Stream<T> streamList(InputStream in, Class<T> elementClass) throws IOException {
+        MappingIterator<T> values = MAPPER.readerFor(elementClass).readValues(in);
+        var iterator = new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return values.hasNextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return values.nextValue();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        values.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Creates a writer that serializes the objects written to it as the
+     * elements of a JSON array. The array is closed and the output stream is
+     * closed when the writer is closed.
+     *
+     * @param out the output stream to which JSON data will be written
+     * @param indent whether the output is indented
+     * @return the writer of the array elements
+     * @throws IOException if any I/O error occurs
+     */
+    public static SequenceWriter newListWriter(OutputStream out, boolean indent) throws IOException {
+        return writer(indent).writeValuesAsArray(out);
+    }
+
+    /**
+     * Serializes an object to JSON without indentation, thus the result does
+     * not contain line breaks.
+     *
+     * @param value the object to be serialized
+     * @return the UTF-8 encoded JSON representation of the object
+     * @throws IOException if the object cannot be serialized
+     */
+    public static byte[] writeValueAsBytes(Object value) throws IOException {
+        return COMPACT_WRITER.writeValueAsBytes(value);
+    }
+
+    /**
+     * Deserializes an object from a part of a byte array containing JSON.
+     *
+     * @param src the byte array containing UTF-8 encoded JSON data
+     * @param offset the offset of the JSON data in the array
+     * @param length the length of the JSON data
+     * @param valueClass represents the class of the object
+     * @return the object deserialized from JSON
+     * @param <T> the type of the object
+     * @throws IOException if the data is not a valid JSON representation of
+     * the object
+     */
+    public static <T> T readValue(byte[] src, int offset, int length, Class<T> valueClass) throws IOException {
+        return MAPPER.readValue(src, offset, length, valueClass);
+    }
+
+    private static ObjectWriter writer(boolean indent) {
+        return indent ? MAPPER.writer() : COMPACT_WRITER;
     }
 }
@@ -24,11 +24,26 @@ public class OrdinalImageStorage implements ImageStorage<Integer> {
      * @param resourceNames the resource names of the images
      */
     public OrdinalImageStorage(Class<?> c, String... resourceNames) {
+        this(c, 0, 0, resourceNames);
+    }
+
+    /**
+     * Creates a {@code OrdinalImageStorage} instance to associate the image
+     * resources specified with the integers 0, 1, 2, &hellip;, scaled to the
+     * size specified when they are loaded. Images displayed at a fixed size
+     * are thus scaled only once instead of on every render.
+     *
+     * @param c the class whose classloader is used to load the images
+     * @param width the width of the images, or 0 to keep the original size
+     * @param height the height of the images, or 0 to keep the original size
+     * @param resourceNames the resource names of the images
+     */
+    public OrdinalImageStorage(Class<?> c, double width, double height, String... resourceNames) {
         images = new Image[resourceNames.length];
         for (var i = 0; i < resourceNames.length; i++) {
             var url = String.format("%s/%s", c.getPackageName().replace('.', '/'), resourceNames[i]);
             try {
-                images[i] = new Image(url);
+                images[i] = width == 0 && height == 0 ? new Image(url) : new Image(url, width, height, false, true);
                 Logger.debug("Loaded image from {}", url);
             } catch (Exception e) {
                 // Failed to load image
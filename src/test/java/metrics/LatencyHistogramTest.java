@@ -0,0 +1,53 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void buckets() {
+        for (var value : new long[] {0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE / 3,
+                Long.MAX_VALUE}) {
+            var index = LatencyHistogram.getIndex(value);
+            assertTrue(LatencyHistogram.getLowestValue(index) <= value, () -> "lowest of " + value);
+            assertTrue(LatencyHistogram.getHighestValue(index) >= value, () -> "highest of " + value);
+            assertTrue(LatencyHistogram.getHighestValue(index) - LatencyHistogram.getLowestValue(index)
+                    <= Math.max(0, value / 32), () -> "precision of " + value);
+        }
+        for (var index = 0; index < 1000; index++) {
+            assertEquals(LatencyHistogram.getHighestValue(index) + 1, LatencyHistogram.getLowestValue(index + 1));
+        }
+    }
+
+    @Test
+    void getSnapshot() {
+        var histogram = new LatencyHistogram();
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0, 0), histogram.getSnapshot());
+        for (var value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000L);
+        }
+        var snapshot = histogram.getSnapshot();
+        assertEquals(1000, snapshot.count());
+        assertEquals(500_500, snapshot.meanNanos());
+        assertEquals(1_000_000, snapshot.maxNanos());
+        assertEquals(500_000, snapshot.p50Nanos(), 500_000 / 32.0);
+        assertEquals(900_000, snapshot.p90Nanos(), 900_000 / 32.0);
+        assertEquals(990_000, snapshot.p99Nanos(), 990_000 / 32.0);
+        assertEquals(999_000, snapshot.p999Nanos(), 999_000 / 32.0);
+        assertTrue(snapshot.p999Nanos() <= snapshot.maxNanos());
+    }
+
+    @Test
+    void record_shouldBeThreadSafe() {
+        var histogram = new LatencyHistogram();
+        IntStream.range(0, 100_000).parallel().forEach(i -> histogram.record(i % 100));
+        var snapshot = histogram.getSnapshot();
+        assertEquals(100_000, snapshot.count());
+        assertEquals(99, snapshot.maxNanos());
+        assertEquals(49, snapshot.meanNanos());
+    }
+}
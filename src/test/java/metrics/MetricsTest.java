@@ -0,0 +1,53 @@
+package metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    void disabledByDefault() {
+        assertFalse(Metrics.ENABLED);
+        assertEquals(0, Metrics.start());
+        Metrics.stop(Metrics.Timer.RENDERING, 0);
+        Metrics.recordMove("Classic", 15, 15, 0, 0, true);
+        assertDoesNotThrow(() -> Metrics.writeSnapshot());
+    }
+
+    @Test
+    void getMoveCounters() {
+        var metrics = new Metrics();
+        var counters = metrics.getMoveCounters("Classic", 2, 3);
+        assertSame(counters, metrics.getMoveCounters("Classic", 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> metrics.getMoveCounters("Classic", 3, 3));
+        counters.record(0, 0, true);
+        counters.record(0, 0, true);
+        counters.record(1, 2, false);
+        var snapshot = counters.getSnapshot();
+        assertEquals(2, snapshot.legalMoves());
+        assertEquals(1, snapshot.illegalMoves());
+        assertArrayEquals(new long[][] {{2, 0, 0}, {0, 0, 0}}, snapshot.legal());
+        assertArrayEquals(new long[][] {{0, 0, 0}, {0, 0, 1}}, snapshot.illegal());
+    }
+
+    @Test
+    void writeSnapshot() throws IOException {
+        var metrics = new Metrics();
+        metrics.getHistogram(Metrics.Timer.MOVE_VALIDATION).record(100);
+        metrics.getMoveCounters("Classic", 1, 2).record(0, 1, false);
+        var out = new ByteArrayOutputStream();
+        metrics.writeSnapshot(out);
+        var json = new ObjectMapper().readTree(out.toByteArray());
+        assertEquals(1, json.at("/latencies/MOVE_VALIDATION/count").asLong());
+        assertEquals(100, json.at("/latencies/MOVE_VALIDATION/maxNanos").asLong());
+        assertEquals(0, json.at("/latencies/LEADERBOARD_LOAD/count").asLong());
+        assertEquals(1, json.at("/moves/Classic/illegalMoves").asLong());
+        assertEquals(1, json.at("/moves/Classic/illegal/0/1").asLong());
+        assertTrue(json.get("taken").isTextual());
+    }
+}
@@ -0,0 +1,103 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardDefinitionTest {
+
+    private static final int[] ROW_CANNONS = {0, 2, 1, 0, 2, 0, 0, 1, 2, 0, 2, 0, 2, 0, 0};
+    private static final int[] COLUMN_CANNONS = {0, 1, 2, 0, 1, 0, 2, 1, 2, 0, 2, 1, 2, 0, 0};
+
+    private static final String SMALL = """
+            [{"name": "Small", "rowCannons": [0, 1, 2], "columnCannons": [2],
+              "goal": {"row": 2, "col": 2}, "blocks": [{"row": 1, "col": 1}]}]
+            """;
+
+    private static List<BoardDefinition> read(String json) throws IOException {
+        return BoardDefinition.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void defaultLevel() {
+        var expected = CompiledBoard.compile(ROW_CANNONS, COLUMN_CANNONS,
+                new Position(14, 14), new Position(13, 13), new Position(14, 6));
+        assertEquals(expected, BoardDefinition.DEFAULT.compile());
+        assertEquals(expected, ImmutableSoldierState.DEFAULT_BOARD);
+        assertEquals(new ImmutableSoldierState(expected, 0, 0, 1), BoardDefinition.DEFAULT.initialState());
+        assertSame(BoardDefinition.DEFAULT, BoardDefinition.getLevels().get(0));
+    }
+
+    @Test
+    void read() throws IOException {
+        var levels = read(SMALL);
+        assertEquals(1, levels.size());
+        var level = levels.get(0);
+        assertEquals("Small", level.name());
+        assertEquals(new Position(0, 0), level.start());
+        var board = level.compile();
+        assertEquals(3, board.getRows());
+        assertEquals(3, board.getCols());
+        assertEquals(0, board.getColumnCannon(2));
+        assertTrue(board.isBlackBlock(1, 1));
+        assertEquals(new StateKey(0, 0, 1), level.initialState().key());
+    }
+
+    @Test
+    void read_shouldRejectInvalidLevels() {
+        assertThrows(IOException.class, () -> read(SMALL.replace("[2]", "[3]")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("\"goal\"", "\"start\": {\"row\": 3, \"col\": 0}, \"goal\"")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("\"goal\": {\"row\": 2, \"col\": 2}, ", "")));
+        assertThrows(IOException.class, () -> read("{}"));
+    }
+
+    @Test
+    void read_shouldRejectLevelsNotFittingTheBoard() {
+        assertThrows(IOException.class, () -> read(SMALL.replace("{\"row\": 1, \"col\": 1}", "{\"row\": 1, \"col\": 3}")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("{\"row\": 1, \"col\": 1}", "{\"row\": -1, \"col\": 0}")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("{\"row\": 1, \"col\": 1}", "{\"row\": 0, \"col\": 0}")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("{\"row\": 1, \"col\": 1}", "{\"row\": 2, \"col\": 2}")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("[0, 1, 2]", "[0, 1, 2, 1]")));
+        assertThrows(IOException.class, () -> read(SMALL.replace("[2]", "[2, 0, 1, 0]")));
+    }
+
+    @Test
+    void read_shouldReadFile(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("levels.json");
+        Files.writeString(path, SMALL);
+        assertEquals(read(SMALL), BoardDefinition.read(path));
+    }
+
+    @Test
+    void compile_shouldBeCached() throws IOException {
+        var first = read(SMALL).get(0);
+        var second = read(SMALL).get(0);
+        assertNotSame(first, second);
+        assertEquals(first, second);
+        assertSame(first.compile(), second.compile());
+    }
+
+    @Test
+    void compile_shouldBoundTheCache() {
+        for (var i = 0; i < 2 * BoardDefinition.MAX_COMPILED; i++) {
+            var definition = new BoardDefinition("Generated " + i, List.of(), List.of(), null,
+                    new Position(2, 2 + i), List.of());
+            assertEquals(3 + i, definition.compile().getCols());
+        }
+        assertEquals(ImmutableSoldierState.DEFAULT_BOARD, BoardDefinition.DEFAULT.compile());
+    }
+
+    @Test
+    void readResource_shouldBeCached() throws IOException {
+        assertSame(BoardDefinition.readResource(BoardDefinition.LEVELS), BoardDefinition.getLevels());
+        assertThrows(IOException.class, () -> BoardDefinition.readResource("/boards/missing.json"));
+    }
+}
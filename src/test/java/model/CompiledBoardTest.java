@@ -0,0 +1,81 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledBoardTest {
+
+    private static final int[] ROW_CANNONS = {0, 2, 1, 0, 2, 0, 0, 1, 2, 0, 2, 0, 2, 0, 0};
+    private static final int[] COLUMN_CANNONS = {0, 1, 2, 0, 1, 0, 2, 1, 2, 0, 2, 1, 2, 0, 0};
+
+    private CompiledBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = CompiledBoard.compile(ROW_CANNONS, COLUMN_CANNONS,
+                new Position(14, 14), new Position(13, 13), new Position(14, 6));
+    }
+
+    @Test
+    void testSize() {
+        assertEquals(15, board.getRows());
+        assertEquals(15, board.getCols());
+        assertEquals(new Position(14, 14), board.getGoal());
+        assertEquals(16, board.getCell(1, 1));
+    }
+
+    @Test
+    void isBlocked() {
+        for (var active = 1; active <= 2; active++) {
+            for (var row = 0; row < 15; row++) {
+                for (var col = 0; col < 15; col++) {
+                    var columnCannon = COLUMN_CANNONS[row];
+                    var rowCannon = ROW_CANNONS[col];
+                    var open = columnCannon == active || rowCannon == active || (columnCannon == 0 && rowCannon == 0);
+                    var black = (row == 13 && col == 13) || (row == 14 && col == 6);
+                    assertEquals(!open || black, board.isBlocked(active, row, col),
+                            String.format("(%d,%d) active %d", row, col, active));
+                }
+            }
+        }
+    }
+
+    @Test
+    void isBlocked_shouldBlockBlackBlocksAndOutside() {
+        assertTrue(board.isBlackBlock(13, 13));
+        assertFalse(board.isCoveredByLaser(1, 13, 13));
+        assertTrue(board.isBlocked(1, 13, 13));
+        assertTrue(board.isBlocked(2, 14, 6));
+        assertTrue(board.isBlocked(1, -1, 0));
+        assertTrue(board.isBlocked(1, 0, -1));
+        assertTrue(board.isBlocked(1, 15, 0));
+        assertTrue(board.isBlocked(1, 0, 15));
+        assertFalse(board.isBlocked(1, 14, 14));
+    }
+
+    @Test
+    void compile_shouldTreatMissingCannonsAsAbsent() {
+        var large = CompiledBoard.compile(ROW_CANNONS, COLUMN_CANNONS, new Position(19, 19));
+        assertEquals(0, large.getRowCannon(19));
+        assertEquals(0, large.getColumnCannon(19));
+        assertFalse(large.isBlocked(1, 19, 19));
+        assertFalse(large.isBlocked(2, 19, 19));
+    }
+
+    @Test
+    void compile_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledBoard.compile(ROW_CANNONS, COLUMN_CANNONS, new Position(-1, 3)));
+    }
+
+    @Test
+    void getBlockedCells() {
+        var cells = board.getBlockedCells(1);
+        var cell = board.getCell(13, 13);
+        assertNotEquals(0, cells[cell >>> 6] & (1L << cell));
+        cells[cell >>> 6] = 0;
+        assertTrue(board.isBlockedCell(1, cell));
+    }
+}
@@ -0,0 +1,83 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImmutableSoldierStateTest {
+
+    @Test
+    void initial() {
+        var state = ImmutableSoldierState.initial();
+        assertEquals(new Position(0, 0), state.position());
+        assertEquals(1, state.active());
+        assertEquals(new Position(14, 14), state.board().getGoal());
+        assertFalse(state.isSolved());
+    }
+
+    @Test
+    void apply() {
+        var state = ImmutableSoldierState.initial();
+        var next = state.apply(Direction.DOWN);
+        assertEquals(new StateKey(1, 0, 2), next.key());
+        assertEquals(new StateKey(0, 0, 1), state.key());
+        assertEquals(new StateKey(1, 1, 1), next.apply(Direction.RIGHT).key());
+        assertSame(state.board(), next.board());
+    }
+
+    @Test
+    void revert() {
+        var state = ImmutableSoldierState.initial();
+        for (var direction : Direction.values()) {
+            assertEquals(state, state.apply(direction).revert(direction));
+        }
+        assertEquals(new StateKey(1, 0, 2), state.revert(Direction.UP).key());
+        assertEquals(state, state.apply(Direction.DOWN).apply(Direction.RIGHT).revert(Direction.RIGHT)
+                .revert(Direction.DOWN));
+    }
+
+    @Test
+    void getLegalMoves() {
+        var state = ImmutableSoldierState.initial();
+        assertEquals(EnumSet.of(Direction.DOWN), state.getLegalMoves());
+        assertTrue(state.isLegalMove(Direction.DOWN));
+        assertFalse(state.isLegalMove(Direction.UP));
+    }
+
+    @Test
+    void getLegalMoves_shouldMatchSoldierState() {
+        var state = ImmutableSoldierState.initial();
+        for (var row = 0; row < 15; row++) {
+            for (var col = 0; col < 15; col++) {
+                for (var active = 1; active <= 2; active++) {
+                    var key = new StateKey(row, col, active);
+                    assertEquals(new SoldierState().withKey(key).getLegalMoves(),
+                            ImmutableSoldierState.of(state.board(), key).getLegalMoves(), key.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void isSolved() {
+        var board = ImmutableSoldierState.DEFAULT_BOARD;
+        assertTrue(new ImmutableSoldierState(board, 14, 14, 2).isSolved());
+        assertFalse(new ImmutableSoldierState(board, 14, 13, 1).isSolved());
+    }
+
+    @Test
+    void testEquals() {
+        var board = ImmutableSoldierState.compile(new Position(14, 14), new Position(13, 13), new Position(14, 6));
+        assertEquals(ImmutableSoldierState.initial(), new ImmutableSoldierState(board, 0, 0, 1));
+        assertEquals(ImmutableSoldierState.initial().hashCode(), new ImmutableSoldierState(board, 0, 0, 1).hashCode());
+        assertNotEquals(ImmutableSoldierState.initial(), ImmutableSoldierState.initial().withActive(2));
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ImmutableSoldierState(ImmutableSoldierState.DEFAULT_BOARD, 0, 0, 0));
+    }
+}
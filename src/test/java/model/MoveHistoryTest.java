@@ -0,0 +1,94 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveHistoryTest {
+
+    @Test
+    void undoRedo() {
+        var history = new MoveHistory();
+        assertFalse(history.canUndo());
+        assertFalse(history.canRedo());
+        history.add(Direction.DOWN);
+        history.add(Direction.RIGHT);
+        history.add(Direction.UP);
+        assertEquals(Direction.UP, history.undo());
+        assertEquals(Direction.RIGHT, history.undo());
+        assertTrue(history.canRedo());
+        assertEquals(List.of(Direction.DOWN), history.getMoves());
+        assertEquals(Direction.RIGHT, history.redo());
+        assertEquals(2, history.size());
+        history.add(Direction.LEFT);
+        assertFalse(history.canRedo());
+        assertEquals(List.of(Direction.DOWN, Direction.RIGHT, Direction.LEFT), history.getMoves());
+        assertThrows(IllegalStateException.class, history::redo);
+        assertThrows(IndexOutOfBoundsException.class, () -> history.get(3));
+        history.clear();
+        assertEquals(0, history.size());
+        assertThrows(IllegalStateException.class, history::undo);
+    }
+
+    @Test
+    void encode_shouldNotContainMovesUndone() {
+        var history = new MoveHistory();
+        for (var i = 0; i < 7; i++) {
+            history.add(Direction.LEFT);
+        }
+        history.undo();
+        history.undo();
+        assertArrayEquals(Moves.encode(history.getMoves()), history.encode());
+        assertEquals(Moves.decode(history.encode(), 5), history.getMoves());
+    }
+
+    @Test
+    void add_shouldRefuseMovesWhenFull() {
+        var history = new MoveHistory();
+        for (var i = 0; i < MoveHistory.MAX_MOVES; i++) {
+            history.add(Direction.DOWN);
+        }
+        assertTrue(history.isFull());
+        assertThrows(IllegalStateException.class, () -> history.add(Direction.UP));
+        assertEquals(Direction.DOWN, history.undo());
+        assertFalse(history.isFull());
+        history.add(Direction.UP);
+        assertEquals(MoveHistory.MAX_MOVES, history.size());
+        assertEquals(Direction.UP, history.get(MoveHistory.MAX_MOVES - 1));
+    }
+
+    @Test
+    void longSession() {
+        var random = new Random(42);
+        var history = new MoveHistory();
+        var initial = ImmutableSoldierState.initial();
+        var state = initial;
+        var states = new ArrayList<ImmutableSoldierState>();
+        for (var i = 0; i < 100_000; i++) {
+            var moves = new ArrayList<>(state.getLegalMoves());
+            if (moves.isEmpty()) {
+                break;
+            }
+            var direction = moves.get(random.nextInt(moves.size()));
+            states.add(state);
+            state = state.apply(direction);
+            history.add(direction);
+        }
+        var end = state;
+        assertEquals(states.size(), history.size());
+        assertArrayEquals(Moves.encode(history.getMoves()), history.encode());
+        while (history.canUndo()) {
+            state = state.revert(history.undo());
+            assertEquals(states.get(history.size()), state);
+        }
+        assertEquals(initial, state);
+        while (history.canRedo()) {
+            state = state.apply(history.redo());
+        }
+        assertEquals(end, state);
+    }
+}
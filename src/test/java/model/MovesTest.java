@@ -0,0 +1,34 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovesTest {
+
+    @Test
+    void encode() {
+        var moves = List.of(Direction.RIGHT, Direction.DOWN, Direction.LEFT, Direction.UP, Direction.LEFT);
+        var encoded = Moves.encode(moves);
+        assertArrayEquals(new byte[] {(byte) 0b00_11_10_01, 0b11}, encoded);
+        assertEquals(Direction.LEFT.ordinal(), Moves.get(encoded, 4));
+        assertEquals(moves, Moves.decode(encoded, moves.size()));
+    }
+
+    @Test
+    void encode_empty() {
+        assertArrayEquals(new byte[0], Moves.encode(List.of()));
+        assertEquals(List.of(), Moves.decode(new byte[0], 0));
+    }
+
+    @Test
+    void decode_shouldRejectInvalidLength() {
+        var encoded = Moves.encode(List.of(Direction.UP, Direction.UP, Direction.UP, Direction.UP, Direction.UP));
+        assertEquals(2, encoded.length);
+        assertThrows(IllegalArgumentException.class, () -> Moves.decode(encoded, 4));
+        assertThrows(IllegalArgumentException.class, () -> Moves.decode(encoded, 9));
+        assertThrows(IllegalArgumentException.class, () -> Moves.decode(encoded, -1));
+    }
+}
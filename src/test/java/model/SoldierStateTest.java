@@ -84,6 +84,17 @@ public class SoldierStateTest {
         assertEquals(stateBeforeMove.getPosition(SoldierState.BOARD_SIZE), soldierState.getPosition(SoldierState.BOARD_SIZE));
     }
 
+    @Test
+    void testUndoMove() {
+        var stateBeforeMove = soldierState.clone();
+        soldierState.makeMove(Direction.RIGHT);
+        soldierState.undoMove(Direction.RIGHT);
+        assertEquals(stateBeforeMove, soldierState);
+        assertEquals(stateBeforeMove.getPosition(SoldierState.SOLDIER), soldierState.getPosition(SoldierState.SOLDIER));
+        assertEquals(stateBeforeMove.ACTIVE.get(), soldierState.ACTIVE.get());
+        assertEquals(stateBeforeMove.isSolved(), soldierState.isSolved());
+    }
+
 
     @Test
     void testEquals() {
@@ -96,6 +107,16 @@ public class SoldierStateTest {
         assertFalse(soldierState.equals(goalState));
     }
 
+    @Test
+    void testEquals_shouldDependOnActiveCannons() {
+        var clone = soldierState.clone();
+        clone.ACTIVE.set(2);
+        assertFalse(clone.equals(soldierState));
+        assertNotEquals(soldierState.hashCode(), clone.hashCode());
+        clone.ACTIVE.set(1);
+        assertTrue(clone.equals(soldierState));
+    }
+
     @Test
     void testHashCode() {
         assertEquals(soldierState.hashCode(), soldierState.hashCode());
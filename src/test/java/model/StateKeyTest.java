@@ -0,0 +1,57 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateKeyTest {
+
+    @Test
+    void packAndUnpack() {
+        var key = new StateKey(14, 13, 2);
+        assertEquals(key, StateKey.unpack(key.pack()));
+        assertEquals(new StateKey(0, 0, 1), StateKey.unpack(0));
+        var max = new StateKey(StateKey.MAX_COORDINATE, StateKey.MAX_COORDINATE, 2);
+        assertEquals(max, StateKey.unpack(max.pack()));
+        assertTrue(max.pack() >= 0);
+    }
+
+    @Test
+    void pack_shouldDistinguishActiveCannons() {
+        assertNotEquals(new StateKey(3, 4, 1).pack(), new StateKey(3, 4, 2).pack());
+        assertNotEquals(new StateKey(3, 4, 1), new StateKey(3, 4, 2));
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new StateKey(-1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StateKey(0, StateKey.MAX_COORDINATE + 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StateKey(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new StateKey(0, 0, 3));
+    }
+
+    @Test
+    void of() {
+        var state = new SoldierState();
+        assertEquals(new StateKey(0, 0, 1), StateKey.of(state));
+        state.makeMove(Direction.DOWN);
+        assertEquals(new StateKey(new Position(1, 0), 2), state.getKey());
+    }
+
+    @Test
+    void withKey() {
+        var state = new SoldierState();
+        var key = new StateKey(5, 7, 2);
+        var other = state.withKey(key);
+        assertEquals(key, other.getKey());
+        assertEquals(state.getPosition(SoldierState.BLACK_BLOCK1), other.getPosition(SoldierState.BLACK_BLOCK1));
+        assertEquals(state.getPosition(SoldierState.BLACK_BLOCK2), other.getPosition(SoldierState.BLACK_BLOCK2));
+        assertEquals(state.getPosition(SoldierState.BOARD_SIZE), other.getPosition(SoldierState.BOARD_SIZE));
+        assertEquals(new StateKey(0, 0, 1), state.getKey());
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("(2,3)@1", new StateKey(2, 3, 1).toString());
+    }
+}
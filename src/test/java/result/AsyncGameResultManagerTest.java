@@ -0,0 +1,131 @@
+package result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncGameResultManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(String playerName, int steps) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(true)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    void add() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new AsyncGameResultManager(() -> new JsonLinesGameResultManager(path))) {
+            var futures = new ArrayList<CompletableFuture<Void>>();
+            for (var steps = 50; steps > 38; steps--) {
+                futures.add(manager.add(result("Alma", steps)));
+            }
+            // Queries run after the results added before them.
+            var best = manager.getBest(2);
+            var all = manager.getAll();
+            assertEquals(List.of(result("Alma", 39), result("Alma", 40)), best.join());
+            assertEquals(12, all.join().size());
+            futures.forEach(future -> assertTrue(future.isDone()));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(12, manager.getAll().size());
+        }
+    }
+
+    @Test
+    void open_shouldFailFutures() throws IOException {
+        try (var manager = new AsyncGameResultManager(() -> {
+            throw new IOException("Cannot open");
+        })) {
+            var exception = assertThrows(CompletionException.class, () -> manager.getAll().join());
+            assertInstanceOf(IOException.class, exception.getCause());
+            assertEquals("Cannot open", exception.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void run_shouldContinueAfterFailedOperation() throws IOException {
+        try (var manager = new AsyncGameResultManager(() -> new JsonLinesGameResultManager(
+                directory.resolve("results.jsonl")))) {
+            var failed = manager.run(ignored -> {
+                throw new IOException("Failed");
+            });
+            manager.add(result("Alma", 38));
+            assertEquals(List.of(result("Alma", 38)), manager.getAll().join());
+            var exception = assertThrows(CompletionException.class, failed::join);
+            assertInstanceOf(IOException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    void close_shouldWaitForPendingOperationsAndCloseManager() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var opened = new AtomicReference<JsonLinesGameResultManager>();
+        var manager = new AsyncGameResultManager(() -> {
+            opened.set(new JsonLinesGameResultManager(path));
+            return opened.get();
+        });
+        var blocked = manager.run(ignored -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return null;
+        });
+        var added = manager.add(result("Alma", 38));
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            fail(e);
+        }
+        var closer = CompletableFuture.runAsync(() -> {
+            try {
+                manager.close();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+        assertFalse(added.isDone());
+        release.countDown();
+        closer.join();
+        assertTrue(blocked.isDone());
+        assertTrue(added.isDone());
+        assertThrows(IOException.class, () -> opened.get().add(result("Bea", 40)));
+        try (var reopened = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Alma", 38)), reopened.getAll());
+        }
+    }
+
+    @Test
+    void run_shouldFailWhenClosed() throws IOException {
+        var manager = new AsyncGameResultManager(() -> new JsonLinesGameResultManager(
+                directory.resolve("results.jsonl")));
+        manager.close();
+        var exception = assertThrows(CompletionException.class, () -> manager.add(result("Alma", 38)).join());
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+}
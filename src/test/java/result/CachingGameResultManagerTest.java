@@ -0,0 +1,120 @@
+package result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingGameResultManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(String playerName, int steps) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(true)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    private static class CountingGameResultManager extends JsonGameResultManager {
+
+        int loads;
+
+        CountingGameResultManager(Path filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public List<GameResult> getAll() throws IOException {
+            loads++;
+            return super.getAll();
+        }
+    }
+
+    @Test
+    void getBest_shouldBeServedFromCache() throws IOException {
+        var path = directory.resolve("results.json");
+        var delegate = new CountingGameResultManager(path);
+        try (var manager = new CachingGameResultManager(delegate, path, false)) {
+            assertEquals(List.of(), manager.getBest(10));
+            manager.add(result("Alma", 40));
+            manager.add(result("Bea", 38));
+            for (var i = 0; i < 10; i++) {
+                assertEquals(List.of(result("Bea", 38), result("Alma", 40)), manager.getBest(10));
+            }
+            assertEquals(List.of(result("Alma", 40), result("Bea", 38)), manager.getAll());
+            assertEquals(1, delegate.loads);
+        }
+        assertEquals(List.of(result("Alma", 40), result("Bea", 38)), new JsonGameResultManager(path).getAll());
+    }
+
+    @Test
+    void getBest_shouldNotReloadResultsAddedThroughTheCache() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        var loads = new int[1];
+        var delegate = new ConcurrentGameResultManager(path) {
+            @Override
+            public List<GameResult> getAll() throws IOException {
+                loads[0]++;
+                return super.getAll();
+            }
+        };
+        try (var manager = new CachingGameResultManager(delegate, path)) {
+            for (var i = 0; i < 10; i++) {
+                manager.add(result("Alma", 40 + i));
+                assertEquals(List.of(result("Alma", 40)), manager.getBest(1));
+            }
+            assertEquals(1, loads[0]);
+        }
+    }
+
+    @Test
+    void add_shouldReturnAllResults() throws IOException {
+        var path = directory.resolve("results.json");
+        try (var manager = new CachingGameResultManager(new JsonGameResultManager(path), path, false)) {
+            assertEquals(List.of(result("Alma", 40)), manager.add(result("Alma", 40)));
+            var added = manager.add(result("Bea", 38));
+            manager.add(result("Cili", 42));
+            assertEquals(List.of(result("Alma", 40), result("Bea", 38)), added);
+        }
+    }
+
+    @Test
+    void getAll_shouldReloadWhenFileIsModified() throws IOException {
+        var path = directory.resolve("results.json");
+        var delegate = new CountingGameResultManager(path);
+        try (var manager = new CachingGameResultManager(delegate, path, false)) {
+            manager.add(result("Alma", 40));
+            new JsonGameResultManager(path).add(result("Bea", 38));
+            assertEquals(List.of(result("Alma", 40), result("Bea", 38)), manager.getAll());
+            assertEquals(List.of(result("Bea", 38)), manager.getBest(1));
+            assertEquals(2, delegate.loads);
+        }
+    }
+
+    @Test
+    void getBest_shouldReloadWhenWatchedFileIsModified() throws IOException, InterruptedException {
+        var path = directory.resolve("results.json");
+        try (var manager = new CachingGameResultManager(new JsonGameResultManager(path), path)) {
+            manager.add(result("Alma", 40));
+            assertEquals(List.of(result("Alma", 40)), manager.getBest(1));
+            new JsonGameResultManager(path).add(result("Bea", 38));
+            var deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+            while (!manager.getBest(1).equals(List.of(result("Bea", 38))) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(result("Bea", 38)), manager.getBest(1));
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarGameResultManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(String playerName, boolean solved, int steps, long durationMillis) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(solved)
+                .steps(steps)
+                .duration(Duration.ofMillis(durationMillis))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 751989200, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    void add() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(List.of(), manager.getAll());
+            assertEquals(List.of(result("Alma", true, 38, 16809)), manager.add(result("Alma", true, 38, 16809)));
+            manager.add(result("Bea", false, 12, 5000));
+            manager.add(result("Alma", true, 40, 20000));
+            assertEquals(3, manager.size());
+        }
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(List.of(result("Alma", true, 38, 16809), result("Bea", false, 12, 5000),
+                    result("Alma", true, 40, 20000)), manager.getAll());
+            try (var results = manager.stream()) {
+                assertEquals(3, results.count());
+            }
+            assertEquals(List.of(result("Alma", true, 38, 16809)), manager.getBest(1));
+        }
+    }
+
+    @Test
+    void add_shouldRestoreCreationTimeInUtc() throws IOException {
+        var created = ZonedDateTime.of(1969, 12, 31, 23, 59, 59, 500, ZoneId.of("Europe/Budapest"));
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            var result = result("Alma", true, 38, 1);
+            result.setCreated(created);
+            manager.add(result);
+            assertEquals(created.toInstant(), manager.getAll().get(0).getCreated().toInstant());
+            assertEquals(ZoneOffset.UTC, manager.getAll().get(0).getCreated().getZone());
+        }
+    }
+
+    @Test
+    void add_shouldRejectTimesOutOfRange() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            var late = result("Alma", true, 38, 1);
+            late.setCreated(ZonedDateTime.of(2263, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC));
+            assertThrows(IllegalArgumentException.class, () -> manager.add(late));
+            var slow = result("Alma", true, 38, 1);
+            slow.setDuration(Duration.ofDays(365L * 300));
+            assertThrows(IllegalArgumentException.class, () -> manager.add(slow));
+            manager.add(result("Bea", true, 40, 1));
+            assertEquals(1, manager.size());
+            assertEquals(List.of(result("Bea", true, 40, 1)), manager.getAll());
+        }
+    }
+
+    @Test
+    void getColumns() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            manager.add(result("Alma", true, 38, 16809));
+            manager.add(result("Bea", false, 12, 5000));
+            var columns = manager.getColumns();
+            assertEquals(2, columns.size());
+            assertEquals(1, columns.solved().get(0));
+            assertEquals(0, columns.solved().get(1));
+            assertEquals(12, columns.steps().get(1));
+            assertEquals(16_809_000_000L, columns.durationNanos().get(0));
+            assertEquals(List.of("Alma", "Bea"), columns.players());
+            assertEquals(1, columns.playerIds().get(1));
+            manager.add(result("Cili", true, 42, 1));
+            assertEquals(2, columns.size());
+            assertEquals(3, manager.getColumns().size());
+        }
+    }
+
+    @Test
+    void getStepsHistogram() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertArrayEquals(new long[0], manager.getStepsHistogram());
+            manager.add(result("Alma", true, 3, 1));
+            manager.add(result("Bea", true, 1, 1));
+            manager.add(result("Cili", true, 3, 1));
+            manager.add(result("Dora", false, 100, 1));
+            manager.add(result("Emma", true, -1, 1));
+            assertArrayEquals(new long[] {0, 1, 0, 2}, manager.getStepsHistogram());
+        }
+    }
+
+    @Test
+    void getDurationPercentiles() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            for (var i = 1; i <= 10; i++) {
+                manager.add(result("Alma", true, 38, i * 1000));
+            }
+            manager.add(result("Bea", true, 38, 7000));
+            manager.add(result("Bea", false, 38, 1000));
+            manager.add(result("Cili", false, 38, 1000));
+            assertEquals(Map.of("Alma", Duration.ofSeconds(9), "Bea", Duration.ofSeconds(7)),
+                    manager.getDurationPercentiles(90));
+            assertEquals(Duration.ofSeconds(5), manager.getDurationPercentiles(50).get("Alma"));
+            assertEquals(Duration.ofSeconds(10), manager.getDurationPercentiles(100).get("Alma"));
+            assertThrows(IllegalArgumentException.class, () -> manager.getDurationPercentiles(0));
+        }
+    }
+
+    @Test
+    void recover_shouldDiscardPartiallyWrittenRows() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            manager.add(result("Alma", true, 38, 16809));
+            manager.add(result("Bea", false, 12, 5000));
+        }
+        Files.write(directory.resolve("steps.bin"), new byte[] {1, 2}, StandardOpenOption.APPEND);
+        Files.write(directory.resolve("solved.bin"), new byte[] {1}, StandardOpenOption.APPEND);
+        Files.write(directory.resolve("players.bin"), new byte[] {0, 0, 0, 9, 'C'}, StandardOpenOption.APPEND);
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(2, manager.size());
+            assertEquals(2, Files.size(directory.resolve("solved.bin")));
+            manager.add(result("Cili", true, 42, 1));
+            assertEquals(List.of(result("Alma", true, 38, 16809), result("Bea", false, 12, 5000),
+                    result("Cili", true, 42, 1)), manager.getAll());
+        }
+    }
+
+    @Test
+    void recover_shouldDiscardRowsWithUnknownPlayers() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            manager.add(result("Alma", true, 38, 16809));
+            manager.add(result("Bea", false, 12, 5000));
+        }
+        Files.write(directory.resolve("players.bin"), new byte[] {0, 0, 0, 4, 'A', 'l', 'm', 'a'});
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(List.of(result("Alma", true, 38, 16809)), manager.getAll());
+        }
+    }
+
+    @Test
+    void add_shouldFailWhenClosed() throws IOException {
+        var manager = new ColumnarGameResultManager(directory);
+        manager.close();
+        assertThrows(IOException.class, () -> manager.add(result("Alma", true, 38, 1)));
+    }
+
+    @Test
+    void index_shouldMatchScansAcrossSnapshots() throws IOException {
+        var random = new Random(14);
+        var results = new ArrayList<GameResult>();
+        GameResultManager reference = new GameResultManager() {
+            @Override
+            public List<GameResult> add(GameResult result) {
+                results.add(result);
+                return results;
+            }
+
+            @Override
+            public List<GameResult> getAll() {
+                return new ArrayList<>(results);
+            }
+        };
+        var start = ZonedDateTime.of(2024, 5, 24, 0, 0, 0, 0, ZoneOffset.UTC);
+        for (var rows : new int[] {500, 500, 20, 500}) {
+            try (var manager = new ColumnarGameResultManager(directory)) {
+                for (var i = 0; i < rows; i++) {
+                    var result = GameResult.builder()
+                            .playerName("Player" + random.nextInt(10))
+                            .solved(random.nextBoolean())
+                            .steps(random.nextInt(100))
+                            .duration(Duration.ofMillis(random.nextInt(100_000)))
+                            .created(start.plusSeconds(random.nextInt(1000)))
+                            .build();
+                    manager.add(result);
+                    reference.add(result);
+                    if (i == rows / 2) {
+                        assertQueries(reference, manager, start);
+                    }
+                }
+                assertQueries(reference, manager, start);
+            }
+            assertTrue(Files.exists(directory.resolve("index.bin")));
+        }
+    }
+
+    private static void assertQueries(GameResultManager expected, GameResultManager actual, ZonedDateTime start)
+            throws IOException {
+        for (var from = 0; from < 1000; from += 150) {
+            var to = start.plusSeconds(from + 300);
+            assertEquals(expected.getCreatedBetween(start.plusSeconds(from), to, 0, 1000),
+                    actual.getCreatedBetween(start.plusSeconds(from), to, 0, 1000));
+            assertEquals(expected.getCreatedBetween(start.plusSeconds(from), to, 17, 5),
+                    actual.getCreatedBetween(start.plusSeconds(from), to, 17, 5));
+        }
+        for (var percentile : new double[] {0.1, 25, 50, 90, 100}) {
+            assertEquals(expected.getStepsPercentile(percentile), actual.getStepsPercentile(percentile));
+            assertEquals(expected.getDurationPercentile(percentile), actual.getDurationPercentile(percentile));
+        }
+        for (var player = 0; player <= 10; player++) {
+            assertEquals(expected.getPlayerStats("Player" + player), actual.getPlayerStats("Player" + player));
+        }
+    }
+
+    @Test
+    void index_shouldBeReadFromSnapshot() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            manager.add(result("Alma", true, 38, 16809));
+            manager.add(result("Bea", true, 40, 5000));
+            assertEquals(OptionalInt.of(40), manager.getStepsPercentile(100));
+        }
+        // Overwriting the steps without changing the length shows that the snapshot is used instead of the column.
+        Files.write(directory.resolve("steps.bin"), new byte[2 * Integer.BYTES]);
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(OptionalInt.of(40), manager.getStepsPercentile(100));
+            manager.add(result("Cili", true, 42, 1));
+            assertEquals(OptionalInt.of(42), manager.getStepsPercentile(100));
+            assertEquals(1, manager.getPlayerStats("Cili").games());
+        }
+    }
+
+    @Test
+    void index_shouldBeRebuiltWhenSnapshotHasMoreRows() throws IOException {
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            manager.add(result("Alma", true, 38, 16809));
+            manager.add(result("Bea", true, 40, 5000));
+            assertEquals(1, manager.getPlayerStats("Bea").games());
+        }
+        try (var channel = FileChannel.open(directory.resolve("steps.bin"), StandardOpenOption.WRITE)) {
+            channel.truncate(Integer.BYTES);
+        }
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(0, manager.getPlayerStats("Bea").games());
+            assertEquals(OptionalInt.of(38), manager.getStepsPercentile(100));
+        }
+        Files.writeString(directory.resolve("index.bin"), "garbage");
+        try (var manager = new ColumnarGameResultManager(directory)) {
+            assertEquals(1, manager.getPlayerStats("Alma").games());
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package result;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tinylog.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGameResultManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int RESULTS_PER_THREAD = 200;
+    private static final int PROCESSES = 3;
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(String playerName, int steps) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(true)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    /**
+     * Adds results from several threads, used as the main class of the
+     * writer processes of the stress test.
+     *
+     * @param args the path of the file and the name of the process
+     */
+    public static void main(String[] args) throws Exception {
+        try (var manager = new ConcurrentGameResultManager(Path.of(args[0]))) {
+            addConcurrently(manager, args[1]);
+        }
+    }
+
+    private static void addConcurrently(GameResultManager manager, String prefix) throws Exception {
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var thread = 0; thread < THREADS; thread++) {
+                var name = prefix + "-" + thread + "-";
+                futures.add(executor.submit(() -> {
+                    for (var i = 0; i < RESULTS_PER_THREAD; i++) {
+                        manager.add(result(name + i, i));
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    /**
+     * Returns the class path of the writer processes, which consists of the
+     * locations of the classes they need, since the class path of the test
+     * runner may not contain them.
+     */
+    private static String classPath() {
+        var locations = new LinkedHashSet<String>();
+        for (var c : List.of(ConcurrentGameResultManagerTest.class, ConcurrentGameResultManager.class, Test.class,
+                ObjectMapper.class, JsonParser.class, JsonAutoDetect.class, JavaTimeModule.class, Logger.class)) {
+            try {
+                locations.add(Path.of(c.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        locations.add(System.getProperty("java.class.path"));
+        return String.join(File.pathSeparator, locations);
+    }
+
+    @Test
+    void add() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new ConcurrentGameResultManager(path)) {
+            assertEquals(List.of(), manager.getAll());
+            assertEquals(List.of(result("Alma", 38)), manager.add(result("Alma", 38)));
+            manager.add(result("Bea", 40));
+            assertEquals(List.of(result("Alma", 38)), manager.getBest(1));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Alma", 38), result("Bea", 40)), manager.getAll());
+        }
+    }
+
+    @Test
+    void submit_shouldFailWhenClosed() throws IOException {
+        var manager = new ConcurrentGameResultManager(directory.resolve("results.jsonl"));
+        manager.close();
+        var future = manager.submit(result("Alma", 38));
+        var exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertThrows(IOException.class, () -> manager.add(result("Alma", 38)));
+    }
+
+    @Test
+    void close_shouldWritePendingResults() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        try (var manager = new ConcurrentGameResultManager(path)) {
+            for (var i = 0; i < 1000; i++) {
+                futures.add(manager.submit(result("Player" + i, i)));
+            }
+        }
+        assertTrue(futures.stream().allMatch(future -> future.isDone() && !future.isCompletedExceptionally()));
+        try (var manager = new ConcurrentGameResultManager(path)) {
+            assertEquals(1000, manager.getAll().size());
+        }
+    }
+
+    @Test
+    void add_shouldTruncateTornRecord() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new ConcurrentGameResultManager(path)) {
+            manager.add(result("Alma", 38));
+            Files.writeString(path, "{\"playerName\":\"Be", StandardOpenOption.APPEND);
+            assertEquals(List.of(result("Alma", 38)), manager.getAll());
+            manager.add(result("Cili", 42));
+            assertEquals(List.of(result("Alma", 38), result("Cili", 42)), manager.getAll());
+        }
+        Files.writeString(path, "{\"playerName\":\"Be");
+        try (var manager = new ConcurrentGameResultManager(path)) {
+            manager.add(result("Cili", 42));
+            assertEquals(List.of(result("Cili", 42)), manager.getAll());
+        }
+    }
+
+    @Test
+    void getBest_shouldNotRescanFileWhenCached() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        var scans = new int[1];
+        var delegate = new ConcurrentGameResultManager(path) {
+            @Override
+            public List<GameResult> getAll() throws IOException {
+                scans[0]++;
+                return super.getAll();
+            }
+        };
+        try (var manager = new CachingGameResultManager(delegate, path, false)) {
+            manager.add(result("Alma", 40));
+            manager.add(result("Bea", 38));
+            for (var i = 0; i < 10; i++) {
+                assertEquals(List.of(result("Bea", 38), result("Alma", 40)), manager.getBest(10));
+            }
+            assertEquals(1, scans[0]);
+            try (var other = new ConcurrentGameResultManager(path)) {
+                other.add(result("Cili", 36));
+            }
+            assertEquals(List.of(result("Cili", 36), result("Bea", 38)), manager.getBest(2));
+            assertEquals(2, scans[0]);
+        }
+    }
+
+    @Test
+    void add_shouldNotLoseResultsOfConcurrentThreadsAndProcesses() throws Exception {
+        var path = directory.resolve("results.jsonl");
+        var java = ProcessHandle.current().info().command().orElse("java");
+        var processes = new ArrayList<Process>();
+        for (var process = 0; process < PROCESSES; process++) {
+            processes.add(new ProcessBuilder(java, "-cp", classPath(),
+                    ConcurrentGameResultManagerTest.class.getName(), path.toString(), "process" + process)
+                    .inheritIO()
+                    .start());
+        }
+        try (var first = new ConcurrentGameResultManager(path);
+             var second = new ConcurrentGameResultManager(path)) {
+            var reader = CompletableFuture.runAsync(() -> {
+                try {
+                    for (var i = 0; i < 20; i++) {
+                        var names = new HashSet<String>();
+                        for (var result : first.getAll()) {
+                            assertTrue(names.add(result.getPlayerName()));
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            addConcurrently(first, "first");
+            addConcurrently(second, "second");
+            reader.get();
+        }
+        for (var process : processes) {
+            assertTrue(process.waitFor(2, TimeUnit.MINUTES));
+            assertEquals(0, process.exitValue());
+        }
+        List<GameResult> results;
+        try (var manager = new ConcurrentGameResultManager(path)) {
+            results = manager.getAll();
+        }
+        var names = new HashSet<String>();
+        results.forEach(result -> assertTrue(names.add(result.getPlayerName())));
+        assertEquals((PROCESSES + 2) * THREADS * RESULTS_PER_THREAD, names.size());
+        for (var prefix : List.of("first", "second", "process0", "process1", "process2")) {
+            for (var thread = 0; thread < THREADS; thread++) {
+                for (var i = 0; i < RESULTS_PER_THREAD; i++) {
+                    assertTrue(names.contains(prefix + "-" + thread + "-" + i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package result;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameResultManagerTest {
+
+    private static final ZonedDateTime EPOCH = ZonedDateTime.of(2024, 5, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    enum Store {
+        JSON {
+            @Override
+            GameResultManager open(Path directory) {
+                return new JsonGameResultManager(directory.resolve("results.json"), false);
+            }
+        },
+        JSON_LINES {
+            @Override
+            GameResultManager open(Path directory) throws IOException {
+                return new JsonLinesGameResultManager(directory.resolve("results.jsonl"));
+            }
+        },
+        CONCURRENT {
+            @Override
+            GameResultManager open(Path directory) {
+                return new ConcurrentGameResultManager(directory.resolve("results.jsonl"));
+            }
+        },
+        COLUMNAR {
+            @Override
+            GameResultManager open(Path directory) throws IOException {
+                return new ColumnarGameResultManager(directory.resolve("columns"));
+            }
+        },
+        CACHING {
+            @Override
+            GameResultManager open(Path directory) {
+                var path = directory.resolve("results.json");
+                return new CachingGameResultManager(new JsonGameResultManager(path, false), path);
+            }
+        },
+        VALIDATING {
+            @Override
+            GameResultManager open(Path directory) throws IOException {
+                return new ValidatingGameResultManager(
+                        new JsonLinesGameResultManager(directory.resolve("results.jsonl")),
+                        new GameResultValidator(), false);
+            }
+        };
+
+        abstract GameResultManager open(Path directory) throws IOException;
+    }
+
+    private static GameResult result(String playerName, boolean solved, int steps, long seconds, long minutes) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(solved)
+                .steps(steps)
+                .duration(Duration.ofSeconds(seconds))
+                .created(EPOCH.plusMinutes(minutes))
+                .build();
+    }
+
+    private static void close(GameResultManager manager) throws IOException {
+        if (manager instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    void getPage(Store store) throws IOException {
+        var manager = store.open(directory);
+        try {
+            for (var i = 0; i < 5; i++) {
+                manager.add(result("Player" + i, true, 38, 10, i));
+            }
+            assertEquals(List.of(result("Player1", true, 38, 10, 1), result("Player2", true, 38, 10, 2)),
+                    manager.getPage(1, 2));
+            assertEquals(List.of(result("Player4", true, 38, 10, 4)), manager.getPage(4, 10));
+            assertEquals(List.of(), manager.getPage(5, 10));
+            assertThrows(IllegalArgumentException.class, () -> manager.getPage(-1, 10));
+        } finally {
+            close(manager);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    void getCreatedBetween(Store store) throws IOException {
+        var manager = store.open(directory);
+        try {
+            manager.add(result("Alma", true, 38, 10, 30));
+            manager.add(result("Bea", true, 40, 10, 10));
+            manager.add(result("Cili", false, 12, 10, 20));
+            manager.add(result("Dora", true, 42, 10, 10));
+            manager.add(result("Emma", true, 44, 10, 40));
+            assertEquals(List.of(result("Bea", true, 40, 10, 10), result("Dora", true, 42, 10, 10),
+                            result("Cili", false, 12, 10, 20), result("Alma", true, 38, 10, 30)),
+                    manager.getCreatedBetween(EPOCH.plusMinutes(10), EPOCH.plusMinutes(40), 0, 10));
+            assertEquals(List.of(result("Dora", true, 42, 10, 10), result("Cili", false, 12, 10, 20)),
+                    manager.getCreatedBetween(EPOCH.plusMinutes(10), EPOCH.plusMinutes(40), 1, 2));
+            assertEquals(List.of(result("Cili", false, 12, 10, 20)),
+                    manager.getCreatedBetween(EPOCH.plusMinutes(10).withZoneSameInstant(ZoneOffset.ofHours(2))
+                            .plusSeconds(1), EPOCH.plusMinutes(21), 0, 10));
+            assertEquals(List.of(), manager.getCreatedBetween(EPOCH, EPOCH.plusMinutes(10), 0, 10));
+        } finally {
+            close(manager);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    void getPlayerStats(Store store) throws IOException {
+        var manager = store.open(directory);
+        try {
+            manager.add(result("Alma", true, 40, 20, 0));
+            manager.add(result("Alma", false, 12, 5, 1));
+            manager.add(result("Bea", true, 38, 10, 2));
+            manager.add(result("Alma", true, 40, 10, 3));
+            manager.add(result("Alma", true, 46, 30, 4));
+            manager.add(result("Cili", false, 12, 5, 5));
+            assertEquals(new PlayerStats("Alma", 4, 3, Optional.of(result("Alma", true, 40, 10, 3)), 42,
+                    Duration.ofSeconds(20)), manager.getPlayerStats("Alma"));
+            assertEquals(new PlayerStats("Cili", 1, 0, Optional.empty(), 0, Duration.ZERO),
+                    manager.getPlayerStats("Cili"));
+            assertEquals(new PlayerStats("Dora", 0, 0, Optional.empty(), 0, Duration.ZERO),
+                    manager.getPlayerStats("Dora"));
+        } finally {
+            close(manager);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Store.class)
+    void getPercentiles(Store store) throws IOException {
+        var manager = store.open(directory);
+        try {
+            assertEquals(Optional.empty(), manager.getDurationPercentile(50));
+            assertEquals(OptionalInt.empty(), manager.getStepsPercentile(50));
+            for (var i = 10; i >= 1; i--) {
+                manager.add(result("Alma", true, 30 + i, i, i));
+            }
+            manager.add(result("Bea", false, 1, 1, 0));
+            assertEquals(Optional.of(Duration.ofSeconds(5)), manager.getDurationPercentile(50));
+            assertEquals(Optional.of(Duration.ofSeconds(1)), manager.getDurationPercentile(1));
+            assertEquals(OptionalInt.of(39), manager.getStepsPercentile(90));
+            assertEquals(OptionalInt.of(40), manager.getStepsPercentile(100));
+            manager.add(result("Cili", true, 1, 100, 0));
+            assertEquals(OptionalInt.of(1), manager.getStepsPercentile(1));
+            assertEquals(Optional.of(Duration.ofSeconds(100)), manager.getDurationPercentile(100));
+            assertThrows(IllegalArgumentException.class, () -> manager.getStepsPercentile(0));
+            assertThrows(IllegalArgumentException.class, () -> manager.getDurationPercentile(101));
+        } finally {
+            close(manager);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = Store.class, names = {"JSON_LINES", "COLUMNAR"})
+    void queries_shouldMatchScanning(Store store) throws IOException {
+        var random = new Random(5);
+        var results = new ArrayList<GameResult>();
+        var manager = store.open(directory);
+        try {
+            for (var i = 0; i < 2000; i++) {
+                var result = result("Player" + random.nextInt(20), random.nextInt(4) != 0, 20 + random.nextInt(30),
+                        random.nextInt(100), i % 10 == 0 ? random.nextInt(1000) : i);
+                results.add(result);
+                manager.add(result);
+                if (i % 500 == 0) {
+                    manager.getPlayerStats("Player0");
+                }
+            }
+            var reference = new GameResultManager() {
+                @Override
+                public List<GameResult> add(GameResult result) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public List<GameResult> getAll() {
+                    return new ArrayList<>(results);
+                }
+            };
+            for (var player = 0; player < 21; player++) {
+                assertEquals(reference.getPlayerStats("Player" + player), manager.getPlayerStats("Player" + player));
+            }
+            for (var percentile : new double[] {0.1, 25, 50, 90, 99.9, 100}) {
+                assertEquals(reference.getDurationPercentile(percentile), manager.getDurationPercentile(percentile));
+                assertEquals(reference.getStepsPercentile(percentile), manager.getStepsPercentile(percentile));
+            }
+            assertEquals(reference.getCreatedBetween(EPOCH.plusMinutes(100), EPOCH.plusMinutes(900), 50, 300),
+                    manager.getCreatedBetween(EPOCH.plusMinutes(100), EPOCH.plusMinutes(900), 50, 300));
+            assertEquals(reference.getPage(1990, 20), manager.getPage(1990, 20));
+            assertEquals(results.stream().filter(GameResult::isSolved).sorted(Leaderboard.ORDER).limit(10).toList(),
+                    manager.getBest(10));
+        } finally {
+            close(manager);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package result;
+
+import model.BoardDefinition;
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.Moves;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import solver.PackedBreadthFirstSearch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static result.GameResultValidator.Verdict.*;
+
+class GameResultValidatorTest {
+
+    private static final List<Direction> SOLUTION =
+            new PackedBreadthFirstSearch().solve(ImmutableSoldierState.initial()).orElseThrow();
+
+    private final GameResultValidator validator = new GameResultValidator();
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(boolean solved, List<Direction> moves) {
+        return GameResult.builder()
+                .playerName("Alma")
+                .solved(solved)
+                .steps(moves.size())
+                .duration(Duration.ofSeconds(moves.size()))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 0, ZoneOffset.UTC))
+                .moves(Moves.encode(moves))
+                .build();
+    }
+
+    @Test
+    void validate() {
+        assertEquals(VALID, validator.validate(result(true, SOLUTION)));
+        assertEquals(VALID, validator.validate(result(false, SOLUTION.subList(0, 10))));
+        assertEquals(VALID, validator.validate(result(false, List.of())));
+        var named = result(true, SOLUTION);
+        named.setLevel(BoardDefinition.DEFAULT.name());
+        assertEquals(VALID, validator.validate(named));
+    }
+
+    @Test
+    void validate_shouldRejectInvalidResults() {
+        var missing = result(true, SOLUTION);
+        missing.setMoves(null);
+        assertEquals(MISSING_MOVES, validator.validate(missing));
+
+        var unknown = result(true, SOLUTION);
+        unknown.setLevel("Unknown");
+        assertEquals(UNKNOWN_LEVEL, validator.validate(unknown));
+
+        var spoofed = result(true, SOLUTION);
+        spoofed.setSteps(SOLUTION.size() - 8);
+        assertEquals(LENGTH_MISMATCH, validator.validate(spoofed));
+
+        assertEquals(ILLEGAL_MOVE, validator.validate(result(false, List.of(Direction.UP))));
+        var detour = new ArrayList<>(SOLUTION);
+        detour.set(1, detour.get(1) == Direction.LEFT ? Direction.RIGHT : Direction.LEFT);
+        assertEquals(ILLEGAL_MOVE, validator.validate(result(true, detour)));
+
+        assertEquals(GOAL_NOT_REACHED, validator.validate(result(true, SOLUTION.subList(0, 10))));
+    }
+
+    @Test
+    void validate_bulk() {
+        var results = new ArrayList<GameResult>();
+        for (var i = 0; i < 10_000; i++) {
+            results.add(i % 3 == 0 ? result(true, SOLUTION.subList(0, 10)) : result(true, SOLUTION));
+        }
+        var verdicts = validator.validate(results);
+        for (var i = 0; i < verdicts.length; i++) {
+            assertEquals(i % 3 == 0 ? GOAL_NOT_REACHED : VALID, verdicts[i]);
+        }
+    }
+
+    @Test
+    void audit() {
+        var invalid = result(true, SOLUTION.subList(0, 10));
+        var findings = new ArrayList<GameResultValidator.Finding>();
+        var counts = validator.audit(Stream.of(result(true, SOLUTION), invalid, result(true, SOLUTION)),
+                findings::add);
+        assertEquals(Map.of(VALID, 2L, GOAL_NOT_REACHED, 1L), counts);
+        assertEquals(List.of(new GameResultValidator.Finding(1, invalid, GOAL_NOT_REACHED)), findings);
+    }
+
+    @Test
+    void validatingManager_shouldRejectInvalidResults() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new ValidatingGameResultManager(new JsonLinesGameResultManager(path), validator, true)) {
+            manager.add(result(true, SOLUTION));
+            assertThrows(IllegalArgumentException.class, () -> manager.add(result(true, SOLUTION.subList(0, 10))));
+            var missing = result(true, SOLUTION);
+            missing.setMoves(null);
+            assertThrows(IllegalArgumentException.class, () -> manager.add(missing));
+            assertEquals(List.of(result(true, SOLUTION)), manager.getAll());
+        }
+        try (var manager = new JsonLinesGameResultManager(path); var results = manager.stream()) {
+            assertEquals(List.of(), validator.audit(results));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonGameResultManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(String playerName, boolean solved, int steps) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(solved)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    void add() throws IOException {
+        var manager = new JsonGameResultManager(directory.resolve("results.json"));
+        assertEquals(List.of(), manager.getAll());
+        assertEquals(List.of(result("Alma", true, 38)), manager.add(result("Alma", true, 38)));
+        assertEquals(List.of(result("Alma", true, 38), result("Bea", false, 40)),
+                manager.add(result("Bea", false, 40)));
+        assertEquals(List.of(result("Alma", true, 38), result("Bea", false, 40)), manager.getAll());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(directory.resolve("results.json")), files.toList());
+        }
+    }
+
+    @Test
+    void add_shouldNotLoseConcurrentResults() throws Exception {
+        var manager = new JsonGameResultManager(directory.resolve("results.json"), false);
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < 40; i++) {
+                var steps = i;
+                futures.add(executor.submit(() -> manager.add(result("Player" + steps, true, steps))));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        }
+        assertEquals(40, manager.getAll().size());
+    }
+
+    @Test
+    void add_shouldReturnSnapshot() throws IOException {
+        var path = directory.resolve("results.json");
+        var manager = new JsonGameResultManager(path);
+        var first = manager.add(result("Alma", true, 38));
+        var second = manager.add(result("Bea", false, 40));
+        Files.delete(path);
+        assertEquals(List.of(result("Alma", true, 38)), first);
+        assertEquals(List.of(result("Alma", true, 38), result("Bea", false, 40)), second);
+    }
+
+    @Test
+    void add_shouldWriteCompactFile() throws IOException {
+        var path = directory.resolve("results.json");
+        var manager = new JsonGameResultManager(path, false);
+        manager.add(result("Alma", true, 38));
+        manager.add(result("Bea", true, 40));
+        assertEquals(1, Files.readAllLines(path).size());
+        assertEquals(2, new JsonGameResultManager(path).getAll().size());
+    }
+
+    @Test
+    void stream() throws IOException {
+        var manager = new JsonGameResultManager(directory.resolve("results.json"));
+        try (var results = manager.stream()) {
+            assertEquals(0, results.count());
+        }
+        manager.add(result("Alma", true, 38));
+        try (var results = manager.stream()) {
+            assertEquals(List.of(result("Alma", true, 38)), results.toList());
+        }
+    }
+
+    @Test
+    void getBest() throws IOException {
+        var manager = new JsonGameResultManager(directory.resolve("results.json"));
+        manager.add(result("Alma", true, 42));
+        manager.add(result("Bea", false, 30));
+        manager.add(result("Cili", true, 38));
+        manager.add(result("Dora", true, 40));
+        assertEquals(List.of(result("Cili", true, 38), result("Dora", true, 40)), manager.getBest(2));
+        assertEquals(3, manager.getBest(10).size());
+        assertEquals(List.of(), manager.getBest(0));
+    }
+}
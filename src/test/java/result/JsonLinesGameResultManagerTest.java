@@ -0,0 +1,222 @@
+package result;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonLinesGameResultManagerTest {
+
+    @TempDir
+    Path directory;
+
+    private static GameResult result(String playerName, int steps) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(true)
+                .steps(steps)
+                .duration(Duration.ofSeconds(steps))
+                .created(ZonedDateTime.of(2024, 5, 24, 17, 52, 15, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    void add() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(), manager.getAll());
+            assertEquals(List.of(result("Alma", 38)), manager.add(result("Alma", 38)));
+            assertEquals(List.of(result("Alma", 38), result("Bea", 40)), manager.add(result("Bea", 40)));
+        }
+        assertEquals(2, Files.readAllLines(path).size());
+        try (var manager = new JsonLinesGameResultManager(path, 1, Duration.ZERO)) {
+            assertEquals(List.of(result("Alma", 38), result("Bea", 40)), manager.getAll());
+            manager.add(result("Cili", 42));
+            assertEquals(List.of(result("Alma", 38)), manager.getBest(1));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(3, manager.getAll().size());
+        }
+    }
+
+    @Test
+    void add_shouldFailWhenClosed() throws IOException {
+        var manager = new JsonLinesGameResultManager(directory.resolve("results.jsonl"));
+        manager.close();
+        assertThrows(IOException.class, () -> manager.add(result("Alma", 38)));
+    }
+
+    @Test
+    void recover_shouldTruncatePartiallyWrittenRecord() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 38));
+        }
+        var size = Files.size(path);
+        Files.writeString(path, "{\"playerName\":\"Bea\",\"sol", StandardOpenOption.APPEND);
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Alma", 38)), manager.getAll());
+            assertEquals(size, Files.size(path));
+            manager.add(result("Bea", 40));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Alma", 38), result("Bea", 40)), manager.getAll());
+        }
+    }
+
+    @Test
+    void recover_shouldSkipAndCompactInvalidRecords() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 38));
+        }
+        Files.writeString(path, "garbage\n\n", StandardOpenOption.APPEND);
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Bea", 40));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Alma", 38), result("Bea", 40)), manager.getAll());
+        }
+        assertEquals(2, Files.readAllLines(path).size());
+        assertFalse(Files.readString(path, StandardCharsets.UTF_8).contains("garbage"));
+    }
+
+    @Test
+    void add_shouldBeSyncedInBackground() throws Exception {
+        var path = directory.resolve("results.jsonl");
+        var index = directory.resolve("results.jsonl.best");
+        try (var manager = new JsonLinesGameResultManager(path, 1000, Duration.ofMillis(20))) {
+            manager.add(result("Alma", 38));
+            for (var i = 0; i < 500 && !Files.readString(index).contains("Alma"); i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.readString(index).contains("Alma"));
+        }
+    }
+
+    @Test
+    void recover_shouldCompactInBackground() throws Exception {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 38));
+        }
+        Files.writeString(path, "garbage\n", StandardOpenOption.APPEND);
+        try (var manager = new JsonLinesGameResultManager(path, 1000, Duration.ofMillis(20))) {
+            for (var i = 0; i < 500 && Files.readString(path).contains("garbage"); i++) {
+                Thread.sleep(10);
+            }
+            assertFalse(Files.readString(path).contains("garbage"));
+            assertEquals(List.of(result("Alma", 38)), manager.getAll());
+        }
+    }
+
+    @Test
+    void compact() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            for (var i = 0; i < 100; i++) {
+                manager.add(result("Player" + i, i));
+            }
+            manager.compact();
+            manager.add(result("Last", 100));
+            assertEquals(101, manager.getAll().size());
+        }
+        assertEquals(101, Files.readAllLines(path).size());
+        assertFalse(Files.exists(directory.resolve("results.jsonl.tmp")));
+    }
+
+    @Test
+    void getBest_shouldBeServedFromIndex() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            for (var i = 0; i < 1000; i++) {
+                manager.add(result("Player" + i, 1000 - i));
+            }
+            assertEquals(List.of(result("Player999", 1), result("Player998", 2)), manager.getBest(2));
+        }
+        assertTrue(Files.exists(directory.resolve("results.jsonl.best")));
+        // Corrupting the first record without changing the length shows that the history is not read.
+        var bytes = Files.readAllBytes(path);
+        bytes[0] = 'x';
+        Files.write(path, bytes);
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Player999", 1), result("Player998", 2)), manager.getBest(2));
+            assertEquals(JsonLinesGameResultManager.LEADERBOARD_CAPACITY,
+                    manager.getBest(JsonLinesGameResultManager.LEADERBOARD_CAPACITY).size());
+        }
+    }
+
+    @Test
+    void getBest_shouldCatchUpWithRecordsAfterIndex() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 40));
+        }
+        var index = Files.readAllBytes(directory.resolve("results.jsonl.best"));
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Bea", 38));
+        }
+        Files.write(directory.resolve("results.jsonl.best"), index);
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Bea", 38), result("Alma", 40)), manager.getBest(10));
+        }
+    }
+
+    @Test
+    void getBest_shouldRebuildInvalidIndex() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 40));
+            manager.add(result("Bea", 38));
+        }
+        Files.writeString(directory.resolve("results.jsonl.best"), "{\"length\":3,\"capacity\":100,\"best\":[]}");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Bea", 38), result("Alma", 40)), manager.getBest(10));
+        }
+        Files.writeString(directory.resolve("results.jsonl.best"), "garbage");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            assertEquals(List.of(result("Bea", 38), result("Alma", 40)), manager.getBest(10));
+            assertEquals(2, manager.getBest(1000).size());
+        }
+    }
+
+    @Test
+    void add_shouldReturnAllResults() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 40));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            var all = manager.add(result("Bea", 38));
+            assertEquals(List.of(result("Alma", 40), result("Bea", 38)), all);
+            assertThrows(UnsupportedOperationException.class, () -> all.add(result("Cili", 42)));
+        }
+    }
+
+    @Test
+    void add_shouldReturnSnapshot() throws IOException {
+        var path = directory.resolve("results.jsonl");
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            manager.add(result("Alma", 40));
+        }
+        try (var manager = new JsonLinesGameResultManager(path)) {
+            var first = manager.add(result("Bea", 38));
+            var second = manager.add(result("Cili", 42));
+            assertEquals(2, first.size());
+            assertEquals(List.of(result("Alma", 40), result("Bea", 38), result("Cili", 42)), second);
+            assertEquals(List.of(result("Alma", 40), result("Bea", 38)), first);
+            manager.compact();
+            assertEquals(4, manager.add(result("Dora", 44)).size());
+        }
+    }
+}
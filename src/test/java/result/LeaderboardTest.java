@@ -0,0 +1,69 @@
+package result;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static GameResult result(String playerName, boolean solved, int steps, int seconds, int day) {
+        return GameResult.builder()
+                .playerName(playerName)
+                .solved(solved)
+                .steps(steps)
+                .duration(Duration.ofSeconds(seconds))
+                .created(ZonedDateTime.of(2024, 5, day, 12, 0, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    @Test
+    void add() {
+        var leaderboard = new Leaderboard(3);
+        var alma = result("Alma", true, 40, 20, 1);
+        var bea = result("Bea", true, 38, 30, 2);
+        var cili = result("Cili", true, 40, 10, 3);
+        var dora = result("Dora", true, 40, 20, 4);
+        var emma = result("Emma", true, 42, 5, 5);
+        assertTrue(leaderboard.add(alma));
+        assertTrue(leaderboard.add(bea));
+        assertFalse(leaderboard.add(result("Fanni", false, 30, 5, 6)));
+        assertTrue(leaderboard.add(cili));
+        assertEquals(List.of(bea, cili, alma), leaderboard.getBest(3));
+        assertFalse(leaderboard.add(dora));
+        assertFalse(leaderboard.add(emma));
+        assertTrue(leaderboard.add(result("Gabi", true, 39, 20, 7)));
+        assertEquals(List.of(bea, result("Gabi", true, 39, 20, 7)), leaderboard.getBest(2));
+    }
+
+    @Test
+    void add_shouldRankEqualResultsInOrderOfAddition() {
+        var leaderboard = new Leaderboard(2);
+        var first = result("Alma", true, 38, 20, 1);
+        var second = result("Bea", true, 38, 20, 1);
+        leaderboard.add(first);
+        leaderboard.add(second);
+        leaderboard.add(result("Cili", true, 38, 20, 1));
+        assertEquals(List.of(first, second), leaderboard.getBest(2));
+    }
+
+    @Test
+    void getBest() {
+        var leaderboard = new Leaderboard(3);
+        assertEquals(List.of(), leaderboard.getBest(3));
+        leaderboard.add(result("Alma", true, 38, 20, 1));
+        assertEquals(1, leaderboard.getBest(3).size());
+        assertEquals(0, leaderboard.getBest(0).size());
+        assertThrows(IllegalArgumentException.class, () -> leaderboard.getBest(4));
+        assertThrows(UnsupportedOperationException.class, () -> leaderboard.getBest(1).clear());
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new Leaderboard(0));
+    }
+}
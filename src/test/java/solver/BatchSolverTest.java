@@ -0,0 +1,127 @@
+package solver;
+
+import model.ImmutableSoldierState;
+import model.Position;
+import org.junit.jupiter.api.Test;
+import util.JacksonHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSolverTest {
+
+    private static List<BatchSolver.Result> solve(BatchSolver solver, String input) throws IOException {
+        var out = new ByteArrayOutputStream();
+        var count = solver.solve(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        try (var results = JacksonHelper.streamList(new ByteArrayInputStream(out.toByteArray()),
+                BatchSolver.Result.class)) {
+            var list = results.toList();
+            assertEquals(count, list.size());
+            return list;
+        }
+    }
+
+    @Test
+    void solve() throws IOException {
+        var input = """
+                {"id": "classic", "soldier": {"row": 0, "col": 0}, "goal": {"row": 14, "col": 14}, \
+                "blocks": [{"row": 13, "col": 13}, {"row": 14, "col": 6}]}
+
+                {"id": "enclosed", "soldier": {"row": 0, "col": 0}, "goal": {"row": 14, "col": 14}, \
+                "blocks": [{"row": 1, "col": 0}, {"row": 0, "col": 1}]}
+                {"id": "solved", "soldier": {"row": 2, "col": 2}, "goal": {"row": 2, "col": 2}, "active": 2}
+                not json
+                {"id": "invalid", "soldier": {"row": 0, "col": 0}, "goal": {"row": 2, "col": 2}, "active": 3}
+                """;
+        try (var solver = new BatchSolver(2)) {
+            var results = solve(solver, input);
+            assertEquals(5, results.size());
+
+            var classic = results.get(0);
+            assertEquals(1, classic.line());
+            assertEquals("classic", classic.id());
+            assertTrue(classic.solved());
+            assertEquals(38, classic.length());
+            assertEquals(new PackedBreadthFirstSearch().solve(ImmutableSoldierState.initial()).orElseThrow(),
+                    classic.path());
+            assertTrue(classic.expandedStates() > 0);
+            assertNull(classic.error());
+
+            var enclosed = results.get(1);
+            assertEquals(3, enclosed.line());
+            assertFalse(enclosed.solved());
+            assertNull(enclosed.path());
+
+            assertEquals(List.of(), results.get(2).path());
+            assertEquals(0, results.get(2).length());
+
+            assertEquals(5, results.get(3).line());
+            assertNull(results.get(3).solved());
+            assertTrue(results.get(3).error().startsWith("Invalid problem"));
+
+            assertEquals("invalid", results.get(4).id());
+            assertNotNull(results.get(4).error());
+        }
+    }
+
+    @Test
+    void solve_shouldRejectProblemsOutsideTheBoard() throws IOException {
+        var input = """
+                {"id": "soldier", "soldier": {"row": 0, "col": 15}, "goal": {"row": 14, "col": 14}}
+                {"id": "negative", "soldier": {"row": -1, "col": 0}, "goal": {"row": 14, "col": 14}}
+                {"id": "block", "soldier": {"row": 0, "col": 0}, "goal": {"row": 2, "col": 2}, \
+                "blocks": [{"row": 3, "col": 0}]}
+                {"id": "huge", "soldier": {"row": 0, "col": 0}, "goal": {"row": 50000, "col": 50000}}
+                null
+                {"id": "valid", "soldier": {"row": 0, "col": 0}, "goal": {"row": 2, "col": 2}}
+                """;
+        try (var solver = new BatchSolver(2)) {
+            var results = solve(solver, input);
+            assertEquals(6, results.size());
+            for (var result : results.subList(0, 5)) {
+                assertNull(result.solved(), result.id());
+                assertNull(result.expandedStates(), result.id());
+                assertNotNull(result.error(), result.id());
+            }
+            assertTrue(results.get(3).error().contains("cells"));
+            assertEquals(5, results.get(4).line());
+            assertEquals("Invalid problem: null", results.get(4).error());
+            assertTrue(results.get(5).solved());
+        }
+    }
+
+    @Test
+    void solve_shouldKeepOrderOfManyProblems() throws IOException {
+        var random = new Random(5);
+        var input = new StringBuilder();
+        var problems = new ArrayList<BatchSolver.Problem>();
+        for (var i = 0; i < 2000; i++) {
+            var goal = new Position(2 + random.nextInt(14), 2 + random.nextInt(14));
+            var problem = new BatchSolver.Problem(Integer.toString(i),
+                    new Position(random.nextInt(goal.row() + 1), random.nextInt(goal.col() + 1)), goal,
+                    List.of(new Position(random.nextInt(goal.row() + 1), random.nextInt(goal.col() + 1))),
+                    1 + random.nextInt(2));
+            problems.add(problem);
+            input.append(new String(JacksonHelper.writeValueAsBytes(problem), StandardCharsets.UTF_8)).append('\n');
+        }
+        try (var solver = new BatchSolver(4); var sequential = new BatchSolver(1)) {
+            var results = solve(solver, input.toString());
+            assertEquals(problems.size(), results.size());
+            for (var i = 0; i < problems.size(); i++) {
+                var expected = sequential.solve(i + 1, problems.get(i));
+                var actual = results.get(i);
+                assertEquals(expected.id(), actual.id());
+                assertEquals(i + 1, actual.line());
+                assertEquals(expected.solved(), actual.solved());
+                assertEquals(expected.path(), actual.path());
+            }
+        }
+    }
+}
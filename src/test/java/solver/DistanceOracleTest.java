@@ -0,0 +1,127 @@
+package solver;
+
+import model.CompiledBoard;
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.Position;
+import model.StateKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceOracleTest {
+
+    private DistanceOracle oracle;
+
+    @BeforeEach
+    void setUp() {
+        oracle = DistanceOracle.build(ImmutableSoldierState.DEFAULT_BOARD);
+    }
+
+    @Test
+    void getRemainingMoves() {
+        assertEquals(38, oracle.getRemainingMoves(ImmutableSoldierState.initial()));
+        assertEquals(0, oracle.getRemainingMoves(new StateKey(14, 14, 1)));
+        assertEquals(0, oracle.getRemainingMoves(new StateKey(14, 14, 2)));
+        assertEquals(DistanceOracle.UNREACHABLE, oracle.getRemainingMoves(new StateKey(20, 0, 1)));
+    }
+
+    @Test
+    void getRemainingMoves_shouldMatchBreadthFirstSearch() {
+        var solver = new PackedBreadthFirstSearch();
+        var random = new Random(3);
+        for (var i = 0; i < 100; i++) {
+            var initial = SolverTest.randomState(random);
+            var oracle = DistanceOracle.build(initial.board());
+            var expected = solver.solve(initial).map(path -> path.size()).orElse(DistanceOracle.UNREACHABLE);
+            assertEquals(expected, oracle.getRemainingMoves(initial), initial::toString);
+        }
+    }
+
+    @Test
+    void getBestMove() {
+        var state = ImmutableSoldierState.initial();
+        var moves = 0;
+        for (var move = oracle.getBestMove(state); move.isPresent(); move = oracle.getBestMove(state)) {
+            assertTrue(state.isLegalMove(move.get()));
+            state = state.apply(move.get());
+            moves++;
+        }
+        assertTrue(state.isSolved());
+        assertEquals(38, moves);
+        assertEquals(Optional.of(Direction.DOWN), oracle.getBestMove(ImmutableSoldierState.initial()));
+    }
+
+    @Test
+    void getBestMove_shouldRejectStatesOfOtherBoards() {
+        var board = ImmutableSoldierState.compile(new Position(2, 2));
+        var state = new ImmutableSoldierState(board, 0, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> oracle.getBestMove(state));
+        assertThrows(IllegalArgumentException.class, () -> oracle.getRemainingMoves(state));
+    }
+
+    @Test
+    void getBestMove_shouldReturnEmptyWhenUnsolvable() {
+        var board = ImmutableSoldierState.compile(new Position(2, 2), new Position(1, 0), new Position(0, 1));
+        var unsolvable = new ImmutableSoldierState(board, 0, 0, 1);
+        assertEquals(Optional.empty(), DistanceOracle.build(board).getBestMove(unsolvable));
+    }
+
+    @Test
+    void writeAndRead() throws IOException {
+        var out = new ByteArrayOutputStream();
+        oracle.write(out);
+        var read = DistanceOracle.read(new ByteArrayInputStream(out.toByteArray()), ImmutableSoldierState.DEFAULT_BOARD);
+        for (var row = 0; row < 15; row++) {
+            for (var col = 0; col < 15; col++) {
+                for (var active = 1; active <= 2; active++) {
+                    var key = new StateKey(row, col, active);
+                    assertEquals(oracle.getRemainingMoves(key), read.getRemainingMoves(key));
+                }
+            }
+        }
+    }
+
+    @Test
+    void read_shouldRejectOtherBoard() throws IOException {
+        var out = new ByteArrayOutputStream();
+        oracle.write(out);
+        var other = ImmutableSoldierState.compile(new Position(14, 14), new Position(13, 13));
+        assertThrows(IOException.class, () -> DistanceOracle.read(new ByteArrayInputStream(out.toByteArray()), other));
+    }
+
+    @Test
+    void of() {
+        var board = ImmutableSoldierState.DEFAULT_BOARD;
+        assertSame(DistanceOracle.of(board), DistanceOracle.of(board));
+        assertEquals(38, DistanceOracle.of(board).join().getRemainingMoves(ImmutableSoldierState.initial()));
+    }
+
+    @Test
+    void of_shouldNotCacheFailures() {
+        var board = CompiledBoard.compile(new int[0], new int[0], new Position(0, Short.MAX_VALUE + 1));
+        var future = DistanceOracle.of(board);
+        var exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+        assertNotSame(future, DistanceOracle.of(board));
+    }
+
+    @Test
+    void of_shouldBoundTheCache() {
+        var first = ImmutableSoldierState.compile(new Position(2, 2));
+        var future = DistanceOracle.of(first);
+        for (var i = 0; i < DistanceOracle.MAX_CACHED; i++) {
+            DistanceOracle.of(ImmutableSoldierState.compile(new Position(3, 3 + i)));
+        }
+        assertNotSame(future, DistanceOracle.of(first));
+        assertEquals(4, DistanceOracle.of(first).join().getRemainingMoves(new ImmutableSoldierState(first, 0, 0, 1)));
+    }
+}
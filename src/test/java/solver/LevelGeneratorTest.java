@@ -0,0 +1,60 @@
+package solver;
+
+import model.BoardDefinition;
+import org.junit.jupiter.api.Test;
+import util.JacksonHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelGeneratorTest {
+
+    @Test
+    void generate() {
+        var generator = new LevelGenerator(10, 12, 0.6, 3, 20, 60);
+        var levels = generator.generate(50, 42);
+        assertEquals(50, levels.size());
+        var solver = new PackedBreadthFirstSearch();
+        for (var level : levels) {
+            var definition = level.definition();
+            assertEquals(10, definition.compile().getRows());
+            assertEquals(12, definition.compile().getCols());
+            assertEquals(3, definition.blocks().size());
+            assertTrue(level.moves() >= 20 && level.moves() <= 60);
+            assertEquals(level.moves(), solver.solve(definition.initialState()).orElseThrow().size());
+            assertTrue(level.branching() >= 1 && level.branching() <= 4);
+        }
+    }
+
+    @Test
+    void generate_shouldBeDeterministic() {
+        var generator = new LevelGenerator(15, 15, 0.6, 2, 30, 100);
+        assertEquals(generator.generate(20, 7), generator.generate(20, 7));
+        assertNotEquals(generator.generate(20, 7), generator.generate(20, 8));
+        assertEquals(generator.generate(20, 7).subList(0, 5), generator.generate(5, 7));
+    }
+
+    @Test
+    void generate_shouldWriteBoardDefinitionsWithGrades() throws IOException {
+        var levels = new LevelGenerator(6, 6, 0.5, 1, 1, 100).generate(10, 1);
+        var out = new ByteArrayOutputStream();
+        JacksonHelper.writeList(out, levels);
+        assertEquals(levels.stream().map(LevelGenerator.GradedLevel::definition).toList(),
+                BoardDefinition.read(new ByteArrayInputStream(out.toByteArray())));
+        var json = out.toString(StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"moves\" : " + levels.get(0).moves()));
+        assertTrue(json.contains("\"branching\" : "));
+    }
+
+    @Test
+    void generate_shouldFailForImpossibleSettings() {
+        assertThrows(IllegalStateException.class, () -> new LevelGenerator(2, 2, 0, 0, 10, 20).generate(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(1, 1, 0.5, 0, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(3, 3, 0.5, 8, 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(3, 3, 0.5, 1, 5, 2));
+    }
+}
@@ -0,0 +1,89 @@
+package solver;
+
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.Position;
+import model.SoldierState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static model.Direction.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedBreadthFirstSearchTest {
+
+    private static final List<Direction> SOLUTION = List.of(
+            DOWN, RIGHT, RIGHT, DOWN, DOWN, RIGHT, DOWN, RIGHT, RIGHT, UP,
+            RIGHT, UP, UP, UP, RIGHT, RIGHT, RIGHT, RIGHT, RIGHT, RIGHT,
+            RIGHT, RIGHT, DOWN, DOWN, DOWN, LEFT, DOWN, DOWN, RIGHT, DOWN,
+            DOWN, DOWN, DOWN, DOWN, DOWN, DOWN, DOWN, DOWN);
+
+    private PackedBreadthFirstSearch solver;
+
+    @BeforeEach
+    void setUp() {
+        solver = new PackedBreadthFirstSearch();
+    }
+
+    @Test
+    void solve() {
+        assertEquals(Optional.of(SOLUTION), solver.solve(new SoldierState()));
+    }
+
+    @Test
+    void solve_immutableState() {
+        assertEquals(Optional.of(SOLUTION), solver.solve(ImmutableSoldierState.initial()));
+    }
+
+    @Test
+    void solve_shouldReturnEmptyPathWhenSolved() {
+        var solved = new SoldierState(
+                new Position(14, 14),
+                new Position(13, 13),
+                new Position(14, 6),
+                new Position(14, 14));
+        assertEquals(Optional.of(List.of()), solver.solve(solved));
+    }
+
+    @Test
+    void solve_shouldReturnEmptyWhenUnsolvable() {
+        var enclosed = new SoldierState(
+                new Position(0, 0),
+                new Position(1, 0),
+                new Position(0, 1),
+                new Position(2, 2));
+        assertTrue(solver.solve(enclosed).isEmpty());
+    }
+
+    @Test
+    void solve_shouldReturnEmptyWhenSoldierIsOutsideTheBoard() {
+        var outside = new SoldierState(
+                new Position(1, 1),
+                new Position(2, 0),
+                new Position(1, 1),
+                new Position(0, 2));
+        assertTrue(solver.solve(outside).isEmpty());
+    }
+
+    @Test
+    void solve_shouldNotModifyInitialState() {
+        var initial = new SoldierState();
+        solver.solve(initial);
+        assertEquals(new Position(0, 0), initial.getPosition(SoldierState.SOLDIER));
+        assertEquals(1, initial.ACTIVE.get());
+    }
+
+    @Test
+    void solve_shouldReuseBuffers() {
+        var enclosed = new SoldierState(
+                new Position(0, 0),
+                new Position(1, 0),
+                new Position(0, 1),
+                new Position(2, 2));
+        assertTrue(solver.solve(enclosed).isEmpty());
+        assertEquals(Optional.of(SOLUTION), solver.solve(new SoldierState()));
+    }
+}
@@ -0,0 +1,46 @@
+package solver;
+
+import model.ImmutableSoldierState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelBreadthFirstSearchTest {
+
+    private ParallelBreadthFirstSearch solver;
+
+    @BeforeEach
+    void setUp() {
+        solver = new ParallelBreadthFirstSearch(new ForkJoinPool(4), true, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        solver.close();
+    }
+
+    @Test
+    void solve_shouldFindSameSolutionAsSequentialSearch() {
+        var sequential = new PackedBreadthFirstSearch();
+        var initial = ImmutableSoldierState.initial();
+        assertEquals(sequential.solve(initial), solver.solve(initial));
+        var random = new Random(7);
+        for (var i = 0; i < 200; i++) {
+            var state = SolverTest.randomState(random);
+            assertEquals(sequential.solve(state), solver.solve(state), state::toString);
+        }
+    }
+
+    @Test
+    void getParallelism() {
+        assertEquals(4, solver.getParallelism());
+        try (var other = new ParallelBreadthFirstSearch(2)) {
+            assertEquals(2, other.getParallelism());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package solver;
+
+import model.CompiledBoard;
+import model.Direction;
+import model.ImmutableSoldierState;
+import model.Position;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverTest {
+
+    static Stream<Solver> solverProvider() {
+        return Stream.of(
+                new PackedBreadthFirstSearch(),
+                new AStarSearch(),
+                new BidirectionalSearch(),
+                new ParallelBreadthFirstSearch());
+    }
+
+    void assertSolution(ImmutableSoldierState initial, List<Direction> path) {
+        var state = initial;
+        for (var direction : path) {
+            assertTrue(state.isLegalMove(direction), () -> "Illegal move in " + path);
+            state = state.apply(direction);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    @ParameterizedTest
+    @MethodSource("solverProvider")
+    void solve(Solver solver) {
+        var initial = ImmutableSoldierState.initial();
+        var path = solver.solve(initial).orElseThrow();
+        assertEquals(38, path.size());
+        assertSolution(initial, path);
+        assertTrue(solver.getExpandedStates() > 0);
+    }
+
+    @ParameterizedTest
+    @MethodSource("solverProvider")
+    void solve_shouldFindShortestSolutionsOnRandomBoards(Solver solver) {
+        var random = new Random(42);
+        var reference = new PackedBreadthFirstSearch();
+        for (var i = 0; i < 200; i++) {
+            var initial = randomState(random);
+            var expected = reference.solve(initial);
+            var actual = solver.solve(initial);
+            assertEquals(expected.isPresent(), actual.isPresent(), initial::toString);
+            if (expected.isPresent()) {
+                assertEquals(expected.get().size(), actual.get().size(), initial::toString);
+                assertSolution(initial, actual.get());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("solverProvider")
+    void solve_shouldReturnEmptyPathWhenSolved(Solver solver) {
+        var solved = new ImmutableSoldierState(ImmutableSoldierState.DEFAULT_BOARD, 14, 14, 2);
+        assertEquals(List.of(), solver.solve(solved).orElseThrow());
+    }
+
+    @ParameterizedTest
+    @MethodSource("solverProvider")
+    void solve_shouldReturnEmptyWhenUnsolvable(Solver solver) {
+        var board = ImmutableSoldierState.compile(new Position(2, 2), new Position(1, 0), new Position(0, 1));
+        assertTrue(solver.solve(new ImmutableSoldierState(board, 0, 0, 1)).isEmpty());
+    }
+
+    static ImmutableSoldierState randomState(Random random) {
+        var rows = 2 + random.nextInt(30);
+        var cols = 2 + random.nextInt(30);
+        var rowCannons = random.ints(cols, 0, 3).toArray();
+        var columnCannons = random.ints(rows, 0, 3).toArray();
+        var blocks = new Position[random.nextInt(rows * cols / 8 + 1)];
+        for (var i = 0; i < blocks.length; i++) {
+            blocks[i] = new Position(random.nextInt(rows), random.nextInt(cols));
+        }
+        var board = CompiledBoard.compile(rowCannons, columnCannons, new Position(rows - 1, cols - 1), blocks);
+        return new ImmutableSoldierState(board, random.nextInt(rows), random.nextInt(cols), 1 + random.nextInt(2));
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonHelperTest {
+
+    record Point(int x, int y) {
+    }
+
+    private static ByteArrayInputStream input(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeList() throws IOException {
+        var points = List.of(new Point(1, 2), new Point(3, 4));
+        var indented = new ByteArrayOutputStream();
+        JacksonHelper.writeList(indented, points);
+        assertTrue(indented.toString(StandardCharsets.UTF_8).contains("\n"));
+        var compact = new ByteArrayOutputStream();
+        JacksonHelper.writeList(compact, points, false);
+        assertEquals("[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]", compact.toString(StandardCharsets.UTF_8));
+        assertEquals(points, JacksonHelper.readList(input(indented.toString(StandardCharsets.UTF_8)), Point.class));
+    }
+
+    @Test
+    void streamList() throws IOException {
+        try (var points = JacksonHelper.streamList(input("[{\"x\":1,\"y\":2}, {\"x\":3,\"y\":4}]"), Point.class)) {
+            assertEquals(List.of(new Point(1, 2), new Point(3, 4)), points.toList());
+        }
+        try (var points = JacksonHelper.streamList(input("{\"x\":1,\"y\":2}\n{\"x\":3,\"y\":4}\n"), Point.class)) {
+            assertEquals(List.of(new Point(1, 2), new Point(3, 4)), points.toList());
+        }
+        try (var points = JacksonHelper.streamList(input("[]"), Point.class)) {
+            assertEquals(0, points.count());
+        }
+    }
+
+    @Test
+    void streamList_shouldThrowUncheckedIOExceptionOnInvalidData() throws IOException {
+        try (var points = JacksonHelper.streamList(input("[{\"x\":1,\"y\":2}, {\"x\":"), Point.class)) {
+            assertThrows(UncheckedIOException.class, points::toList);
+        }
+    }
+
+    @Test
+    void newListWriter() throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var writer = JacksonHelper.newListWriter(out, false)) {
+            writer.write(new Point(1, 2));
+            writer.write(new Point(3, 4));
+        }
+        assertEquals("[{\"x\":1,\"y\":2},{\"x\":3,\"y\":4}]", out.toString(StandardCharsets.UTF_8));
+        var empty = new ByteArrayOutputStream();
+        JacksonHelper.newListWriter(empty, true).close();
+        assertEquals(List.of(), JacksonHelper.readList(input(empty.toString(StandardCharsets.UTF_8)), Point.class));
+    }
+
+    @Test
+    void writeValueAsBytes() throws IOException {
+        var bytes = JacksonHelper.writeValueAsBytes(new Point(1, 2));
+        assertEquals("{\"x\":1,\"y\":2}", new String(bytes, StandardCharsets.UTF_8));
+        assertEquals(new Point(1, 2), JacksonHelper.readValue(bytes, 0, bytes.length, Point.class));
+    }
+}